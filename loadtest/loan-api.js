@@ -0,0 +1,57 @@
+// Burst load against the customer and loan endpoints.
+// Run once per execution mode and compare the summaries, e.g.
+//   VIRTUAL_THREADS_ENABLED=false docker compose up -d && k6 run -e TOKEN=... loadtest/loan-api.js
+//   VIRTUAL_THREADS_ENABLED=true  docker compose up -d && k6 run -e TOKEN=... loadtest/loan-api.js
+// Without Keycloak, run the service with the loadtest profile and mint TOKEN with LoadTestTokenMinter (see README).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CUSTOMER_ID = __ENV.CUSTOMER_ID || '1';
+const params = {
+    headers: {
+        Authorization: `Bearer ${__ENV.TOKEN}`,
+        'Content-Type': 'application/json',
+    },
+};
+
+export const options = {
+    scenarios: {
+        burst: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: 200, duration: '30s' },
+                { target: 1000, duration: '30s' },
+                { target: 1000, duration: '1m' },
+                { target: 50, duration: '30s' },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<500', 'p(99)<1000'],
+    },
+};
+
+export default function () {
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/customers/${CUSTOMER_ID}`, null, params],
+        ['GET', `${BASE_URL}/api/customers?size=50`, null, params],
+        ['GET', `${BASE_URL}/api/loans/${CUSTOMER_ID}?size=50`, null, params],
+    ]);
+    responses.forEach((response) => check(response, { 'status is 200': (r) => r.status === 200 }));
+
+    if (Math.random() < 0.1) {
+        const loan = http.post(`${BASE_URL}/api/loans`, JSON.stringify({
+            customerId: Number(CUSTOMER_ID),
+            amount: 10,
+            interestRate: 0.2,
+            installments: 6,
+        }), params);
+        check(loan, { 'loan accepted or rejected by limit': (r) => r.status === 200 || r.status === 502 });
+    }
+}
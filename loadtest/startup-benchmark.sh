@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Cold start per mode: plain jar, extracted jar with a CDS archive, AOT + CDS, and the native image if one was built.
+# The application boots against in-memory H2 so database latency does not skew the numbers.
+#   mvn -Paot -DskipTests package                   (JVM modes)
+#   mvn -Paot,native -DskipTests native:compile     (optional native image, needs GraalVM)
+#   loadtest/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+JAR=target/loanassignment-0.0.1-SNAPSHOT.jar
+NATIVE=target/loanassignment
+WORK=target/startup
+APP_ARGS=(
+  "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+  "--spring.datasource.driver-class-name=org.h2.Driver"
+  "--spring.datasource.username=sa"
+  "--spring.datasource.password="
+  "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+  "--spring.r2dbc.url=r2dbc:postgresql://localhost:5432/loandb"
+  "--server.port=0"
+)
+
+# prints the "Started ... in N seconds" figure of one run
+startup() {
+  local log pid
+  log=$(mktemp)
+  "$@" "${APP_ARGS[@]}" >"$log" 2>&1 &
+  pid=$!
+  until grep -q "Started LoanAssignmentApplication" "$log"; do
+    if ! kill -0 "$pid" 2>/dev/null; then cat "$log" >&2; exit 1; fi
+    sleep 0.1
+  done
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  sed -n 's/.*Started LoanAssignmentApplication in \([0-9.]*\) seconds.*/\1/p' "$log"
+  rm -f "$log"
+}
+
+report() {
+  local mode=$1 times
+  shift
+  times=$(for _ in $(seq "$RUNS"); do startup "$@"; done | sort -n)
+  printf '%-10s median %ss  (runs: %s)\n' "$mode" "$(echo "$times" | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')" "$(echo $times)"
+}
+
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" --application-filename app.jar >/dev/null
+
+# training runs stop right after the context refresh and dump the loaded classes
+java -XX:ArchiveClassesAtExit="$WORK/jvm.jsa" -Dspring.context.exit=onRefresh -jar "$WORK/app/app.jar" "${APP_ARGS[@]}" >/dev/null
+java -XX:ArchiveClassesAtExit="$WORK/aot.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+  -jar "$WORK/app/app.jar" "${APP_ARGS[@]}" >/dev/null
+
+report jar java -jar "$JAR"
+report cds java -XX:SharedArchiveFile="$WORK/jvm.jsa" -jar "$WORK/app/app.jar"
+report aot+cds java -XX:SharedArchiveFile="$WORK/aot.jsa" -Dspring.aot.enabled=true -jar "$WORK/app/app.jar"
+if [[ -x "$NATIVE" ]]; then
+  report native "$NATIVE"
+else
+  echo "native     skipped (build with mvn -Paot,native -DskipTests native:compile)"
+fi
@@ -0,0 +1,38 @@
+package com.inghubs.loanassignment;
+
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+
+public final class H2Fixture {
+
+    private H2Fixture() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(LoanAssignmentApplication.class)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///benchmark?options=MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--loan.overdue.enabled=false",
+                        "--loan.outbox.relay.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--server.port=0");
+    }
+
+    public static Long customer(ConfigurableApplicationContext context) {
+        Customer customer = new Customer();
+        customer.setName("Benchmark");
+        customer.setSurname("Customer");
+        customer.setCreditLimit(new BigDecimal("1000000000000"));
+        return context.getBean(CustomerRepository.class).save(customer).getId();
+    }
+}
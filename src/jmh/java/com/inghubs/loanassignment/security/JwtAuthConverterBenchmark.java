@@ -0,0 +1,59 @@
+package com.inghubs.loanassignment.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthConverterBenchmark {
+
+    private JwtAuthConverter converter;
+    private Jwt jwt;
+    private CachingJwtAuthenticationProvider cachingProvider;
+
+    @Setup
+    public void setUp() {
+        converter = new JwtAuthConverter();
+        ReflectionTestUtils.setField(converter, "principleAttribute", "preferred_username");
+        ReflectionTestUtils.setField(converter, "resourceId", "loan-api");
+
+        Instant issuedAt = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("f3c1a7de-0b7e-4c55-9d2c-6d4e1b1f9a10")
+                .claim("preferred_username", "admin")
+                .claim("scope", "openid profile email")
+                .claim("resource_access", Map.of("loan-api", Map.of("roles", List.of("ADMIN", "CUSTOMER"))))
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(300))
+                .build();
+        JwtAuthenticationProvider delegate = new JwtAuthenticationProvider(token -> jwt);
+        delegate.setJwtAuthenticationConverter(converter);
+        cachingProvider = new CachingJwtAuthenticationProvider(delegate, 1_000, Duration.ofMinutes(5));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+
+    @Benchmark
+    public Authentication authenticateCached() {
+        return cachingProvider.authenticate(new BearerTokenAuthenticationToken("token"));
+    }
+}
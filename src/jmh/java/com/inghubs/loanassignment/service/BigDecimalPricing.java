@@ -0,0 +1,49 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// BigDecimal pricing as it was before InstallmentPricing, kept as the baseline for allocation comparisons.
+final class BigDecimalPricing {
+
+    private BigDecimalPricing() {
+    }
+
+    static List<BigDecimal> schedule(CreateLoanRequest request) {
+        BigDecimal totalAmount = request.getAmount().multiply(BigDecimal.valueOf(1 + request.getInterestRate()));
+        BigDecimal installmentAmount = totalAmount.divide(BigDecimal.valueOf(request.getInstallments()), RoundingMode.HALF_UP);
+        List<BigDecimal> installments = new ArrayList<>(request.getInstallments());
+        for (int i = 0; i < request.getInstallments(); i++) {
+            installments.add(installmentAmount);
+        }
+        return installments;
+    }
+
+    static BigDecimal payableAmount(LoanInstallment inst, LocalDate now) {
+        BigDecimal finalAmount = inst.getAmount();
+        long days = ChronoUnit.DAYS.between(now, inst.getDueDate());
+        if (days > 0)
+            finalAmount = finalAmount.subtract(inst.getAmount().multiply(BigDecimal.valueOf(0.001 * days)));
+        else if (days < 0)
+            finalAmount = finalAmount.add(inst.getAmount().multiply(BigDecimal.valueOf(0.001 * -days)));
+        return finalAmount;
+    }
+
+    static BigDecimal settle(List<LoanInstallment> installments, BigDecimal amount, LocalDate now, List<LoanInstallment> paid) {
+        BigDecimal amountToPay = amount;
+        for (LoanInstallment inst : installments) {
+            BigDecimal finalAmount = payableAmount(inst, now);
+            if (amountToPay.compareTo(finalAmount) < 0) break;
+            amountToPay = amountToPay.subtract(finalAmount);
+            paid.add(inst);
+        }
+        return amountToPay;
+    }
+}
@@ -0,0 +1,81 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.H2Fixture;
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanPage;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.CustomerDelinquency;
+import com.inghubs.loanassignment.repository.CustomerDelinquencyRepository;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerPortfolioBenchmark {
+
+    @Param({"5", "50"})
+    int loans;
+
+    private ConfigurableApplicationContext context;
+    private CustomerPortfolioService portfolioService;
+    private LoanService loanService;
+    private CustomerRepository customerRepo;
+    private CustomerDelinquencyRepository delinquencyRepo;
+    private Long customerId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = H2Fixture.start();
+        portfolioService = context.getBean(CustomerPortfolioService.class);
+        loanService = context.getBean(LoanService.class);
+        customerRepo = context.getBean(CustomerRepository.class);
+        delinquencyRepo = context.getBean(CustomerDelinquencyRepository.class);
+        customerId = H2Fixture.customer(context);
+        for (int i = 0; i < loans; i++) {
+            loanService.createLoan(LoanCreationBenchmark.request(customerId, 12));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerPortfolioSummary readModel() {
+        return portfolioService.getPortfolio(customerId);
+    }
+
+    // what a client assembled before the read model: the customer, its unpaid loans and its delinquency row
+    @Benchmark
+    public CustomerPortfolioSummary composed() {
+        Customer customer = customerRepo.findById(customerId).orElseThrow();
+        BigDecimal outstanding = BigDecimal.ZERO;
+        LocalDate nextDueDate = null;
+        int active = 0;
+        Long afterId = null;
+        do {
+            LoanPage page = loanService.listLoans(customerId, new LoanFilter(false, null, null, null), afterId, LoanService.MAX_PAGE_SIZE);
+            for (LoanSummary loan : page.getItems()) {
+                active++;
+                outstanding = outstanding.add(loan.getRemainingAmount());
+                if (nextDueDate == null || loan.getNextDueDate().isBefore(nextDueDate)) nextDueDate = loan.getNextDueDate();
+            }
+            afterId = page.getNextCursor();
+        } while (afterId != null);
+        BigDecimal overdue = delinquencyRepo.findById(customerId).map(CustomerDelinquency::getOverdueAmount).orElse(BigDecimal.ZERO);
+        return new CustomerPortfolioSummary(customerId, customer.getCreditLimit(), customer.getUsedCreditLimit(),
+                customer.getCreditLimit().subtract(customer.getUsedCreditLimit()), active, outstanding, nextDueDate, overdue, null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.H2Fixture;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscountCalculationBenchmark {
+
+    @Param({"-30", "0", "30"})
+    int daysUntilDue;
+
+    private LoanInstallment installment;
+    private long amountMinor;
+    private LocalDate now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDate.now();
+        installment = new LoanInstallment();
+        installment.setAmount(new BigDecimal("200.00"));
+        installment.setDueDate(now.plusDays(daysUntilDue));
+        amountMinor = InstallmentPricing.toMinor(installment.getAmount());
+    }
+
+    @Benchmark
+    public long payableMinor() {
+        return InstallmentPricing.payableMinor(amountMinor, installment.getDueDate(), now);
+    }
+
+    @Benchmark
+    public BigDecimal payableBigDecimal() {
+        return BigDecimalPricing.payableAmount(installment, now);
+    }
+
+    @Benchmark
+    public void payableWindow(Database database, Blackhole blackhole) {
+        for (LoanInstallment inst : database.installmentRepo.findPayableInstallments(database.loanId, database.maxDueDate)) {
+            blackhole.consume(InstallmentPricing.payableMinor(InstallmentPricing.toMinor(inst.getAmount()), inst.getDueDate(), database.now));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        ConfigurableApplicationContext context;
+        LoanInstallmentRepository installmentRepo;
+        Long loanId;
+        LocalDate now;
+        LocalDate maxDueDate;
+
+        @Setup
+        public void start() {
+            context = H2Fixture.start();
+            installmentRepo = context.getBean(LoanInstallmentRepository.class);
+            LoanService loanService = context.getBean(LoanService.class);
+            loanId = loanService.createLoan(LoanCreationBenchmark.request(H2Fixture.customer(context), 24)).getId();
+            now = LocalDate.now();
+            maxDueDate = now.plusMonths(3);
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.H2Fixture;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanCreationBenchmark {
+
+    @Param({"6", "9", "12", "24"})
+    int installments;
+
+    private Customer customer;
+    private CreateLoanRequest request;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setCreditLimit(new BigDecimal("1000000000000"));
+        request = request(customer.getId(), installments);
+    }
+
+    @Benchmark
+    public List<LoanInstallment> schedule() {
+        LoanService.validateLoanRequest(request);
+        InstallmentSchedule installmentSchedule = LoanService.schedule(request);
+        Loan loan = LoanService.newLoan(customer, request, installmentSchedule);
+        return LoanService.newInstallments(loan, installmentSchedule);
+    }
+
+    @Benchmark
+    public List<BigDecimal> scheduleBigDecimal() {
+        return BigDecimalPricing.schedule(request);
+    }
+
+    @Benchmark
+    public long[] scheduleMinorUnits() {
+        long total = InstallmentPricing.totalMinor(InstallmentPricing.toMinor(request.getAmount()),
+                InstallmentPricing.rateMicros(request.getInterestRate()));
+        long[] amounts = new long[installments];
+        Arrays.fill(amounts, InstallmentPricing.installmentMinor(total, installments));
+        amounts[installments - 1] = InstallmentPricing.lastInstallmentMinor(total, installments);
+        return amounts;
+    }
+
+    @Benchmark
+    public Loan createLoan(Database database, LoanCreationBenchmark benchmark) {
+        return database.loanService.createLoan(database.request(benchmark.installments));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        ConfigurableApplicationContext context;
+        LoanService loanService;
+        Long customerId;
+
+        @Setup
+        public void start() {
+            context = H2Fixture.start();
+            loanService = context.getBean(LoanService.class);
+            customerId = H2Fixture.customer(context);
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+
+        CreateLoanRequest request(int installments) {
+            return LoanCreationBenchmark.request(customerId, installments);
+        }
+    }
+
+    static CreateLoanRequest request(Long customerId, int installments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(installments);
+        return request;
+    }
+}
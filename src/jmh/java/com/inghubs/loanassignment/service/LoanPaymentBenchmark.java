@@ -0,0 +1,90 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.H2Fixture;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.entity.ScheduleType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanPaymentBenchmark {
+    private static final BigDecimal PAY_ALL = new BigDecimal("1000000");
+    private static final long PAY_ALL_MINOR = InstallmentPricing.toMinor(PAY_ALL);
+
+    @Param({"6", "9", "12", "24"})
+    int installments;
+
+    private List<LoanInstallment> schedule;
+    private LocalDate now;
+
+    @Setup
+    public void setUp() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        now = LocalDate.now();
+        CreateLoanRequest request = LoanCreationBenchmark.request(customer.getId(), installments);
+        // created far enough back that half of the installments are already overdue
+        InstallmentSchedule installmentSchedule = ScheduleEngine.generate(ScheduleType.FLAT, InstallmentPricing.toMinor(request.getAmount()),
+                InstallmentPricing.rateMicros(request.getInterestRate()), installments, now.minusMonths(installments / 2 + 1));
+        Loan loan = LoanService.newLoan(customer, request, installmentSchedule);
+        schedule = LoanService.newInstallments(loan, installmentSchedule);
+    }
+
+    @Benchmark
+    public long settle() {
+        return LoanService.settleInstallments(schedule, PAY_ALL_MINOR, now, new ArrayList<>(installments));
+    }
+
+    @Benchmark
+    public BigDecimal settleBigDecimal() {
+        return BigDecimalPricing.settle(schedule, PAY_ALL, now, new ArrayList<>(installments));
+    }
+
+    @Benchmark
+    public String payLoan(Database database) {
+        return database.loanService.payLoan(database.request);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        ConfigurableApplicationContext context;
+        LoanService loanService;
+        Long customerId;
+        PayLoanRequest request;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = H2Fixture.start();
+            loanService = context.getBean(LoanService.class);
+            customerId = H2Fixture.customer(context);
+        }
+
+        @Setup(Level.Invocation)
+        public void newLoan(LoanPaymentBenchmark benchmark) {
+            Loan loan = loanService.createLoan(LoanCreationBenchmark.request(customerId, benchmark.installments));
+            request = new PayLoanRequest();
+            request.setLoanId(loan.getId());
+            request.setAmount(PAY_ALL);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.entity.ScheduleType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleBenchmark {
+    private static final int BATCH = 1_000;
+
+    @Param({"FLAT", "ANNUITY", "DECLINING_BALANCE"})
+    ScheduleType type;
+
+    @Param({"6", "12", "24"})
+    int installments;
+
+    private long[] principals;
+    private long[] rates;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        principals = new long[BATCH];
+        rates = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            principals[i] = 100_000 + i * 1_337L;
+            // a bulk run mostly repeats a handful of rate cards
+            rates[i] = InstallmentPricing.rateMicros(0.1 + (i % 5) * 0.1);
+        }
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public InstallmentSchedule generate() {
+        return ScheduleEngine.generate(type, principals[0], rates[0], installments, today);
+    }
+
+    // one bulk origination chunk; the score is schedules per millisecond
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void generateBatch(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(ScheduleEngine.generate(type, principals[i], rates[i], installments, today));
+        }
+    }
+
+    @Benchmark
+    public LocalDate[] dueDatesUncached() {
+        LocalDate first = today.withDayOfMonth(1).plusMonths(1);
+        LocalDate[] dates = new LocalDate[installments];
+        for (int i = 0; i < installments; i++) {
+            dates[i] = first.plusMonths(i);
+        }
+        return dates;
+    }
+}
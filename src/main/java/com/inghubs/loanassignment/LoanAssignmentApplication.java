@@ -2,8 +2,10 @@ package com.inghubs.loanassignment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// writes go through JPA; R2DBC is only used for non-transactional reads
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
 public class LoanAssignmentApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.inghubs.loanassignment.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String INSTALLMENTS = "installments";
+    public static final String IDEMPOTENCY = "idempotency";
+    public static final String QUOTES = "quotes";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${loan.cache.spec:maximumSize=10000,expireAfterWrite=10m}") String spec,
+                                     @Value("${loan.cache.quote-spec:maximumSize=10000,expireAfterWrite=1m}") String quoteSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CUSTOMERS, INSTALLMENTS, IDEMPOTENCY);
+        cacheManager.setCaffeine(Caffeine.from(spec).recordStats());
+        // quotes only bridge a quote-then-pay round trip, so they live much shorter than the other caches
+        cacheManager.registerCustomCache(QUOTES, Caffeine.from(quoteSpec).recordStats().build());
+        // evictions issued inside a transaction are applied only after it commits
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
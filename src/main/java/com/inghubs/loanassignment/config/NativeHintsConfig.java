@@ -0,0 +1,46 @@
+package com.inghubs.loanassignment.config;
+
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
+import com.inghubs.loanassignment.dto.CustomerSummary;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.dto.LoanTotals;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.dto.PaymentOutcome;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.security.JwtAuthConverter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.LoanRuntimeHints.class)
+public class NativeHintsConfig {
+
+    // only what AOT cannot infer from controller signatures and JPA managed types
+    static class LoanRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // JPQL constructor expressions instantiate the Lombok projections reflectively
+            hints.reflection().registerType(LoanSummary.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(CustomerSummary.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(CustomerPortfolioSummary.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(LoanTotals.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // (de)serialized by hand: idempotent replays, NDJSON ingestion and the reactive streams
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                    Loan.class, CreateLoanRequest.class, PayLoanRequest.class, PaymentOutcome.class,
+                    LoanSummary.class, InstallmentSummary.class);
+
+            // principle-attribute and resource-id are injected into private fields
+            hints.reflection().registerType(JwtAuthConverter.class, MemberCategory.DECLARED_FIELDS);
+
+            hints.resources().registerPattern("db/migration/*/*.sql");
+        }
+    }
+}
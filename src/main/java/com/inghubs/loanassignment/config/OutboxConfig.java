@@ -0,0 +1,28 @@
+package com.inghubs.loanassignment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.service.FileOutboxSink;
+import com.inghubs.loanassignment.service.InMemoryOutboxSink;
+import com.inghubs.loanassignment.service.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "loan.outbox.sink", havingValue = "file", matchIfMissing = true)
+    public OutboxSink fileOutboxSink(@Value("${loan.outbox.file:outbox/events.jsonl}") Path file, ObjectMapper objectMapper) {
+        return new FileOutboxSink(file, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "loan.outbox.sink", havingValue = "memory")
+    public OutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+}
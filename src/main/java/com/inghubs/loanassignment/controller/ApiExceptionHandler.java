@@ -1,7 +1,11 @@
 package com.inghubs.loanassignment.controller;
 
+import com.inghubs.loanassignment.service.IdempotencyConflictException;
+import com.inghubs.loanassignment.service.IdempotencyInProgressException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -21,4 +25,28 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_GATEWAY);
 
     }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    @ResponseBody
+    ResponseEntity<String> handleUnavailableException(CannotCreateTransactionException exception) {
+        return new ResponseEntity<>("Service busy, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    @ResponseBody
+    ResponseEntity<String> handleIdempotencyConflictException(IdempotencyConflictException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotencyInProgressException.class)
+    @ResponseBody
+    ResponseEntity<String> handleIdempotencyInProgressException(IdempotencyInProgressException exception) {
+        return new ResponseEntity<>(exception.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseBody
+    ResponseEntity<String> handleConcurrentUpdateException(OptimisticLockingFailureException exception) {
+        return new ResponseEntity<>("Concurrent update, retry later", HttpStatus.CONFLICT);
+    }
 }
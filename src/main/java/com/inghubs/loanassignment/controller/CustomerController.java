@@ -1,23 +1,28 @@
 package com.inghubs.loanassignment.controller;
 
 
+import com.inghubs.loanassignment.dto.CustomerPage;
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
 import com.inghubs.loanassignment.dto.CustomerRequest;
 import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.service.CustomerPortfolioService;
 import com.inghubs.loanassignment.service.CustomerService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/customers")
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerPortfolioService portfolioService;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerPortfolioService portfolioService) {
         this.customerService = customerService;
+        this.portfolioService = portfolioService;
     }
 
     @PostMapping
@@ -28,8 +33,15 @@ public class CustomerController {
 
     @GetMapping
     @PreAuthorize("hasRole('client_admin')")
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<CustomerPage> getCustomers(@RequestParam(required = false) Long afterId,
+                                                     @RequestParam(defaultValue = "${customer.listing.page-size:50}") int size) {
+        return ResponseEntity.ok(customerService.getCustomers(afterId, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('client_admin')")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        return ResponseEntity.ok(customerService::exportCustomers);
     }
 
     @GetMapping("/{id}")
@@ -40,6 +52,12 @@ public class CustomerController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/portfolio")
+    @PreAuthorize("hasRole('client_admin')")
+    public ResponseEntity<CustomerPortfolioSummary> getPortfolio(@PathVariable Long id) {
+        return ResponseEntity.ok(portfolioService.getPortfolio(id));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('client_admin')")
     public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, @RequestBody CustomerRequest customer) {
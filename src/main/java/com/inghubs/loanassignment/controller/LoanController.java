@@ -2,47 +2,90 @@ package com.inghubs.loanassignment.controller;
 
 
 import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanBatchItemResult;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanPage;
 import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.dto.PaymentQuote;
 import com.inghubs.loanassignment.entity.Loan;
-import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.service.IdempotencyService;
+import com.inghubs.loanassignment.service.LoanOriginationService;
 import com.inghubs.loanassignment.service.LoanService;
+import com.inghubs.loanassignment.service.PaymentIngestionService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class LoanController {
     private final LoanService loanService;
+    private final LoanOriginationService loanOriginationService;
+    private final PaymentIngestionService paymentIngestionService;
+    private final IdempotencyService idempotencyService;
 
-    public LoanController(LoanService loanService) {
+    public LoanController(LoanService loanService, LoanOriginationService loanOriginationService, PaymentIngestionService paymentIngestionService,
+                          IdempotencyService idempotencyService) {
         this.loanService = loanService;
+        this.loanOriginationService = loanOriginationService;
+        this.paymentIngestionService = paymentIngestionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping("/loans")
     @PreAuthorize("hasRole('client_admin')")
-    public ResponseEntity<Loan> createLoan(@RequestBody CreateLoanRequest request) {
-        return ResponseEntity.ok().body(loanService.createLoan(request));
+    public ResponseEntity<Loan> createLoan(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                           @RequestBody CreateLoanRequest request) {
+        return ResponseEntity.ok().body(idempotencyService.execute(idempotencyKey, "createLoan", request, Loan.class,
+                () -> loanService.createLoan(request)));
+    }
+
+    @PostMapping("/loans/batch")
+    @PreAuthorize("hasRole('client_admin')")
+    public ResponseEntity<List<LoanBatchItemResult>> createLoans(@RequestBody List<CreateLoanRequest> requests) {
+        return ResponseEntity.ok(loanOriginationService.createLoans(requests));
     }
 
     @GetMapping("/loans/{customerId}")
     @PreAuthorize("hasRole('client_admin')")
-    public ResponseEntity<List<Loan>> listLoans(@PathVariable Long customerId) {
-        return ResponseEntity.ok(loanService.listLoans(customerId));
+    public ResponseEntity<LoanPage> listLoans(@PathVariable Long customerId, LoanFilter filter,
+                                              @RequestParam(required = false) Long afterId,
+                                              @RequestParam(defaultValue = "${loan.listing.page-size:50}") int size) {
+        return ResponseEntity.ok(loanService.listLoans(customerId, filter, afterId, size));
     }
 
     @GetMapping("/installments/{loanId}")
     @PreAuthorize("hasRole('client_admin')")
-    public ResponseEntity<List<LoanInstallment>> listInstallments(@PathVariable Long loanId) {
+    public ResponseEntity<List<InstallmentSummary>> listInstallments(@PathVariable Long loanId) {
         return ResponseEntity.ok(loanService.listInstallments(loanId));
     }
 
+    @GetMapping("/loans/{loanId}/quote")
+    @PreAuthorize("hasRole('client_admin')")
+    public ResponseEntity<PaymentQuote> quotePayment(@PathVariable Long loanId) {
+        return ResponseEntity.ok(loanService.quotePayment(loanId));
+    }
+
     @PostMapping("/payments")
     @PreAuthorize("hasRole('client_admin')")
-    public ResponseEntity<String> payLoan(@RequestBody PayLoanRequest request) {
-        return ResponseEntity.ok(loanService.payLoan(request));
+    public ResponseEntity<String> payLoan(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                          @RequestBody PayLoanRequest request) {
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, "payLoan", request, String.class,
+                () -> loanService.payLoan(request)));
+    }
+
+    @PostMapping(value = "/payments/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('client_admin')")
+    public void ingestPayments(@RequestParam(defaultValue = "0") long resumeFrom, InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        paymentIngestionService.ingest(body, response.getOutputStream(), resumeFrom);
     }
 }
 
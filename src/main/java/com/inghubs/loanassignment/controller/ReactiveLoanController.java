@@ -0,0 +1,34 @@
+package com.inghubs.loanassignment.controller;
+
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.repository.LoanReadRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping(value = "/api/reactive", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@ConditionalOnProperty(name = "loan.reactive.enabled", havingValue = "true")
+public class ReactiveLoanController {
+    private final LoanReadRepository loanReadRepository;
+
+    public ReactiveLoanController(LoanReadRepository loanReadRepository) {
+        this.loanReadRepository = loanReadRepository;
+    }
+
+    @GetMapping("/loans/{customerId}")
+    @PreAuthorize("hasRole('client_admin')")
+    public Flux<LoanSummary> streamLoans(@PathVariable Long customerId, LoanFilter filter) {
+        return loanReadRepository.streamLoans(customerId, filter);
+    }
+
+    @GetMapping("/installments/{loanId}")
+    @PreAuthorize("hasRole('client_admin')")
+    public Flux<InstallmentSummary> streamInstallments(@PathVariable Long loanId) {
+        return loanReadRepository.streamInstallments(loanId);
+    }
+}
@@ -1,5 +1,6 @@
 package com.inghubs.loanassignment.dto;
 
+import com.inghubs.loanassignment.entity.ScheduleType;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -8,6 +9,11 @@ import java.math.BigDecimal;
 public class CreateLoanRequest {
     public Long customerId;
     public BigDecimal amount;
+    // the meaning depends on scheduleType: for FLAT it is the rate for the whole term, charged once on the
+    // principal; for ANNUITY and DECLINING_BALANCE it is a nominal annual rate, so 0.2 over 24 months costs
+    // far less than a FLAT 0.2
     public double interestRate;
     public int installments;
+    // FLAT when omitted
+    public ScheduleType scheduleType;
 }
@@ -0,0 +1,18 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerEvent {
+    private Long customerId;
+    private String name;
+    private String surname;
+    private BigDecimal creditLimit;
+    private BigDecimal usedCreditLimit;
+}
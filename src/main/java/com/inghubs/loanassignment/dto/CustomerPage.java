@@ -0,0 +1,15 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerPage {
+    private List<CustomerSummary> items;
+    private Long nextCursor;
+}
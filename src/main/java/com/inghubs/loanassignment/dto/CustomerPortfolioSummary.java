@@ -0,0 +1,24 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerPortfolioSummary {
+    private Long customerId;
+    private BigDecimal creditLimit;
+    private BigDecimal usedCreditLimit;
+    private BigDecimal creditHeadroom;
+    private int activeLoans;
+    private BigDecimal totalOutstanding;
+    private LocalDate nextDueDate;
+    private BigDecimal overdueAmount;
+    private Instant updatedAt;
+}
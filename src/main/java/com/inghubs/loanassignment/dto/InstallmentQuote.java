@@ -0,0 +1,19 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InstallmentQuote {
+    private Long installmentId;
+    private LocalDate dueDate;
+    private BigDecimal amount;
+    private BigDecimal payableAmount;
+    private BigDecimal cumulativeAmount;
+}
@@ -0,0 +1,21 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InstallmentSummary {
+    private Long id;
+    private Long loanId;
+    private BigDecimal amount;
+    private BigDecimal paidAmount;
+    private LocalDate dueDate;
+    private LocalDate paymentDate;
+    private boolean isPaid;
+}
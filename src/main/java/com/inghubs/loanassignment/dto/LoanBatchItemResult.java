@@ -0,0 +1,27 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanBatchItemResult {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private Long customerId;
+    private Long loanId;
+    private String status;
+    private String error;
+
+    public static LoanBatchItemResult created(int index, Long customerId, Long loanId) {
+        return new LoanBatchItemResult(index, customerId, loanId, CREATED, null);
+    }
+
+    public static LoanBatchItemResult rejected(int index, Long customerId, String error) {
+        return new LoanBatchItemResult(index, customerId, null, REJECTED, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.inghubs.loanassignment.dto;
+
+import com.inghubs.loanassignment.entity.ScheduleType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanCreatedEvent {
+    private Long loanId;
+    private Long customerId;
+    private BigDecimal loanAmount;
+    private Integer numberOfInstallments;
+    private ScheduleType scheduleType;
+    private LocalDate createDate;
+    private LocalDate nextDueDate;
+    private BigDecimal nextDueAmount;
+}
@@ -0,0 +1,21 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanPaymentEvent {
+    private Long loanId;
+    private Long customerId;
+    private int paidInstallments;
+    private BigDecimal remainingAmount;
+    private boolean loanPaid;
+    private LocalDate nextDueDate;
+    private BigDecimal nextDueAmount;
+}
@@ -0,0 +1,24 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanSummary {
+    private Long id;
+    private Long customerId;
+    private BigDecimal loanAmount;
+    private Integer numberOfInstallments;
+    private LocalDate createDate;
+    private boolean isPaid;
+    private BigDecimal remainingAmount;
+    private Integer paidInstallmentCount;
+    private LocalDate nextDueDate;
+    private BigDecimal nextDueAmount;
+}
@@ -0,0 +1,17 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanTotals {
+    private Long activeLoans;
+    private BigDecimal totalOutstanding;
+    private LocalDate nextDueDate;
+}
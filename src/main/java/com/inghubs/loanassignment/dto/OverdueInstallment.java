@@ -0,0 +1,19 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OverdueInstallment {
+    private Long id;
+    private Long customerId;
+    private BigDecimal amount;
+    private LocalDate dueDate;
+    private BigDecimal accruedPenalty;
+}
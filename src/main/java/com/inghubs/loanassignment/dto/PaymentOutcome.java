@@ -0,0 +1,33 @@
+package com.inghubs.loanassignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentOutcome {
+    public static final String APPLIED = "APPLIED";
+    public static final String REJECTED = "REJECTED";
+
+    private long line;
+    private Long loanId;
+    private String status;
+    private Integer paidCount;
+    private BigDecimal remainingAmount;
+    private Boolean loanPaid;
+    private String error;
+
+    public static PaymentOutcome applied(long line, Long loanId, int paidCount, BigDecimal remainingAmount, boolean loanPaid) {
+        return new PaymentOutcome(line, loanId, APPLIED, paidCount, remainingAmount, loanPaid, null);
+    }
+
+    public static PaymentOutcome rejected(long line, Long loanId, String error) {
+        return new PaymentOutcome(line, loanId, REJECTED, null, null, null, error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.inghubs.loanassignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentQuote {
+    private Long loanId;
+    private LocalDate quoteDate;
+    private List<InstallmentQuote> installments;
+    private BigDecimal totalPayable;
+    private boolean settlesLoan;
+}
@@ -0,0 +1,24 @@
+package com.inghubs.loanassignment.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+
+@Entity
+@Getter
+@Setter
+public class CustomerDelinquency {
+    @Id
+    private Long customerId;
+    // null until persisted, so new counters insert without a merge select
+    @Version
+    private Long version;
+    private int overdueInstallments;
+    private BigDecimal overdueAmount = BigDecimal.ZERO;
+    private BigDecimal accruedPenalty = BigDecimal.ZERO;
+    private Instant evaluatedAt;
+}
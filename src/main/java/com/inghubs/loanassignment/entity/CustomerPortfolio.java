@@ -0,0 +1,28 @@
+package com.inghubs.loanassignment.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+
+@Entity
+@Getter
+@Setter
+public class CustomerPortfolio {
+    @Id
+    private Long customerId;
+    // null until persisted, so repository saves of a new portfolio insert without a lookup
+    @Version
+    private Long version;
+    private BigDecimal creditLimit;
+    private BigDecimal usedCreditLimit;
+    private int activeLoans;
+    private BigDecimal totalOutstanding = BigDecimal.ZERO;
+    private LocalDate nextDueDate;
+    private BigDecimal overdueAmount = BigDecimal.ZERO;
+    private Instant updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.inghubs.loanassignment.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+
+@Entity
+@Getter
+@Setter
+public class IdempotencyRecord {
+    @Id
+    private String idempotencyKey;
+    // null until persisted, so repository saves always insert and a duplicate key fails instead of merging
+    @Version
+    private Long version;
+    private String operation;
+    private String requestHash;
+    @Column(columnDefinition = "text")
+    private String responseBody;
+    private Instant createdAt;
+}
@@ -13,7 +13,8 @@ import java.time.LocalDate;
 @Setter
 public class Loan {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
     @ManyToOne
     private Customer customer;
@@ -21,4 +22,12 @@ public class Loan {
     private Integer numberOfInstallments;
     private LocalDate createDate;
     private boolean isPaid = false;
+    private BigDecimal remainingAmount;
+    private Integer paidInstallmentCount = 0;
+    private LocalDate nextDueDate;
+    private BigDecimal nextDueAmount;
+    @Enumerated(EnumType.STRING)
+    private ScheduleType scheduleType = ScheduleType.FLAT;
+    @Version
+    private Long version;
 }
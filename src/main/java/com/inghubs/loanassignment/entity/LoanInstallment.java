@@ -12,7 +12,8 @@ import java.time.LocalDate;
 @Setter
 public class LoanInstallment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_installment_seq")
+    @SequenceGenerator(name = "loan_installment_seq", sequenceName = "loan_installment_seq", allocationSize = 50)
     private Long id;
     @ManyToOne
     private Loan loan;
@@ -21,4 +22,10 @@ public class LoanInstallment {
     private LocalDate dueDate;
     private LocalDate paymentDate;
     private boolean isPaid = false;
+    // materialized by the overdue scan so collections reads avoid recomputing penalties. Only the scan's JDBC update
+    // writes them, so a payment flushing a stale entity cannot reset them and its update statement stays batchable
+    @Column(updatable = false)
+    private boolean overdue = false;
+    @Column(updatable = false)
+    private BigDecimal accruedPenalty = BigDecimal.ZERO;
 }
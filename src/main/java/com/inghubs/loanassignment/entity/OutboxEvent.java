@@ -0,0 +1,24 @@
+package com.inghubs.loanassignment.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+
+@Entity
+@Getter
+@Setter
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+    private String aggregateType;
+    private Long aggregateId;
+    private String eventType;
+    @Column(columnDefinition = "text")
+    private String payload;
+    private Instant createdAt;
+}
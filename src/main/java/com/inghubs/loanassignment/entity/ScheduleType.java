@@ -0,0 +1,7 @@
+package com.inghubs.loanassignment.entity;
+
+public enum ScheduleType {
+    FLAT,
+    ANNUITY,
+    DECLINING_BALANCE
+}
@@ -0,0 +1,17 @@
+package com.inghubs.loanassignment.repository;
+
+import com.inghubs.loanassignment.entity.CustomerDelinquency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface CustomerDelinquencyRepository extends JpaRepository<CustomerDelinquency, Long> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CustomerDelinquency d set d.overdueInstallments = 0, d.overdueAmount = 0, d.accruedPenalty = 0, " +
+            "d.evaluatedAt = :evaluatedAt where d.evaluatedAt < :evaluatedAt")
+    int resetNotEvaluatedSince(@Param("evaluatedAt") Instant evaluatedAt);
+}
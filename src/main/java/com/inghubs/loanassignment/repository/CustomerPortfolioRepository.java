@@ -0,0 +1,64 @@
+package com.inghubs.loanassignment.repository;
+
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
+import com.inghubs.loanassignment.entity.CustomerPortfolio;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+// Counters move by relative updates; the next due date is only re-derived after findByIdForUpdate, see applyPayment.
+public interface CustomerPortfolioRepository extends JpaRepository<CustomerPortfolio, Long> {
+
+    // waits for concurrent loan and payment writers of the customer, so statements issued afterwards see their commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from CustomerPortfolio p where p.customerId = :customerId")
+    Optional<CustomerPortfolio> findByIdForUpdate(@Param("customerId") Long customerId);
+
+    @Query("select new com.inghubs.loanassignment.dto.CustomerPortfolioSummary(p.customerId, p.creditLimit, p.usedCreditLimit, " +
+            "p.creditLimit - p.usedCreditLimit, p.activeLoans, p.totalOutstanding, p.nextDueDate, p.overdueAmount, p.updatedAt) " +
+            "from CustomerPortfolio p where p.customerId = :customerId")
+    Optional<CustomerPortfolioSummary> findSummary(@Param("customerId") Long customerId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CustomerPortfolio p set p.creditLimit = :creditLimit, p.updatedAt = :now where p.customerId = :customerId")
+    int updateCreditLimit(@Param("customerId") Long customerId, @Param("creditLimit") BigDecimal creditLimit, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CustomerPortfolio p where p.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CustomerPortfolio p set p.activeLoans = p.activeLoans + :count, " +
+            "p.totalOutstanding = p.totalOutstanding + :amount, p.usedCreditLimit = p.usedCreditLimit + :amount, " +
+            "p.nextDueDate = case when p.nextDueDate is null or p.nextDueDate > :dueDate then :dueDate else p.nextDueDate end, " +
+            "p.updatedAt = :now where p.customerId = :customerId")
+    int addLoans(@Param("customerId") Long customerId, @Param("count") int count, @Param("amount") BigDecimal amount,
+                 @Param("dueDate") LocalDate dueDate, @Param("now") Instant now);
+
+    // callers lock the row with findByIdForUpdate first: the subquery reads the statement's snapshot, which would
+    // otherwise miss payments and loans of the same customer committed while this update waited for the row lock.
+    // The paid loan's new next due date is flushed first, so the subquery sees it too.
+    @Modifying(flushAutomatically = true)
+    @Query("update CustomerPortfolio p set p.totalOutstanding = p.totalOutstanding - :paid, " +
+            "p.overdueAmount = case when p.overdueAmount > :overduePaid then p.overdueAmount - :overduePaid else 0 end, " +
+            "p.activeLoans = p.activeLoans - :closedLoans, " +
+            "p.nextDueDate = (select min(l.nextDueDate) from Loan l where l.customer.id = p.customerId and l.isPaid = false), " +
+            "p.updatedAt = :now where p.customerId = :customerId")
+    int applyPayment(@Param("customerId") Long customerId, @Param("paid") BigDecimal paid, @Param("overduePaid") BigDecimal overduePaid,
+                     @Param("closedLoans") int closedLoans, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CustomerPortfolio p set p.overdueAmount = " +
+            "coalesce((select d.overdueAmount from CustomerDelinquency d where d.customerId = p.customerId), 0), " +
+            "p.updatedAt = :evaluatedAt " +
+            "where p.customerId in (select d.customerId from CustomerDelinquency d where d.evaluatedAt = :evaluatedAt)")
+    int refreshOverdueAmounts(@Param("evaluatedAt") Instant evaluatedAt);
+}
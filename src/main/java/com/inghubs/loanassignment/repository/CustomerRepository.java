@@ -1,7 +1,38 @@
 package com.inghubs.loanassignment.repository;
 
+import com.inghubs.loanassignment.dto.CustomerSummary;
 import com.inghubs.loanassignment.entity.Customer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    @Query("select new com.inghubs.loanassignment.dto.CustomerSummary(c.id, c.name, c.surname, c.creditLimit, c.usedCreditLimit) " +
+            "from Customer c where c.id > :afterId order by c.id")
+    List<CustomerSummary> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // customer row first, portfolio row second: the order credit reservations and payments lock them in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Customer c where c.id = :id")
+    Optional<Customer> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.usedCreditLimit = c.usedCreditLimit + :amount " +
+            "where c.id = :id and c.creditLimit - c.usedCreditLimit >= :amount")
+    int reserveCredit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    // leaves usedCreditLimit alone, so a reservation committed since the customer was read is not overwritten
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.name = :name, c.surname = :surname, c.creditLimit = :creditLimit where c.id = :id")
+    int updateProfile(@Param("id") Long id, @Param("name") String name, @Param("surname") String surname,
+                      @Param("creditLimit") BigDecimal creditLimit);
 }
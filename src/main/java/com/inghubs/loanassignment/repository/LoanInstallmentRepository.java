@@ -1,10 +1,25 @@
 package com.inghubs.loanassignment.repository;
 
+import com.inghubs.loanassignment.dto.InstallmentSummary;
 import com.inghubs.loanassignment.entity.LoanInstallment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
     List<LoanInstallment> findByLoanIdOrderByDueDateAsc(Long loanId);
-}
\ No newline at end of file
+
+    @Query("select new com.inghubs.loanassignment.dto.InstallmentSummary(i.id, i.loan.id, i.amount, i.paidAmount, " +
+            "i.dueDate, i.paymentDate, i.isPaid) from LoanInstallment i where i.loan.id = :loanId order by i.dueDate asc")
+    List<InstallmentSummary> findSummariesByLoanId(@Param("loanId") Long loanId);
+
+    @Query("select i from LoanInstallment i where i.loan.id = :loanId and i.isPaid = false " +
+            "and i.dueDate <= :maxDueDate order by i.dueDate asc")
+    List<LoanInstallment> findPayableInstallments(@Param("loanId") Long loanId, @Param("maxDueDate") LocalDate maxDueDate);
+
+    Optional<LoanInstallment> findFirstByLoanIdAndIsPaidFalseAndDueDateAfterOrderByDueDateAsc(Long loanId, LocalDate dueDate);
+}
@@ -0,0 +1,81 @@
+package com.inghubs.loanassignment.repository;
+
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+@ConditionalOnProperty(name = "loan.reactive.enabled", havingValue = "true")
+public class LoanReadRepository {
+    private static final String LOAN_COLUMNS = "id, customer_id, loan_amount, number_of_installments, create_date, is_paid, "
+            + "remaining_amount, paid_installment_count, next_due_date, next_due_amount";
+    private static final String INSTALLMENT_COLUMNS = "id, loan_id, amount, paid_amount, due_date, payment_date, is_paid";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public LoanReadRepository(DatabaseClient databaseClient, @Value("${loan.reactive.fetch-size:250}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<LoanSummary> streamLoans(Long customerId, LoanFilter filter) {
+        StringBuilder sql = new StringBuilder("select " + LOAN_COLUMNS + " from loan where customer_id = :customerId");
+        if (filter.getIsPaid() != null) sql.append(" and is_paid = :isPaid");
+        if (filter.getInstallments() != null) sql.append(" and number_of_installments = :installments");
+        if (filter.getCreatedFrom() != null) sql.append(" and create_date >= :createdFrom");
+        if (filter.getCreatedTo() != null) sql.append(" and create_date <= :createdTo");
+        sql.append(" order by id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("customerId", customerId);
+        if (filter.getIsPaid() != null) spec = spec.bind("isPaid", filter.getIsPaid());
+        if (filter.getInstallments() != null) spec = spec.bind("installments", filter.getInstallments());
+        if (filter.getCreatedFrom() != null) spec = spec.bind("createdFrom", filter.getCreatedFrom());
+        if (filter.getCreatedTo() != null) spec = spec.bind("createdTo", filter.getCreatedTo());
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map(LoanReadRepository::toLoanSummary)
+                .all();
+    }
+
+    public Flux<InstallmentSummary> streamInstallments(Long loanId) {
+        return databaseClient.sql("select " + INSTALLMENT_COLUMNS + " from loan_installment where loan_id = :loanId order by due_date")
+                .bind("loanId", loanId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(LoanReadRepository::toInstallmentSummary)
+                .all();
+    }
+
+    private static LoanSummary toLoanSummary(Readable row) {
+        return new LoanSummary(
+                row.get("id", Long.class),
+                row.get("customer_id", Long.class),
+                row.get("loan_amount", BigDecimal.class),
+                row.get("number_of_installments", Integer.class),
+                row.get("create_date", LocalDate.class),
+                Boolean.TRUE.equals(row.get("is_paid", Boolean.class)),
+                row.get("remaining_amount", BigDecimal.class),
+                row.get("paid_installment_count", Integer.class),
+                row.get("next_due_date", LocalDate.class),
+                row.get("next_due_amount", BigDecimal.class));
+    }
+
+    private static InstallmentSummary toInstallmentSummary(Readable row) {
+        return new InstallmentSummary(
+                row.get("id", Long.class),
+                row.get("loan_id", Long.class),
+                row.get("amount", BigDecimal.class),
+                row.get("paid_amount", BigDecimal.class),
+                row.get("due_date", LocalDate.class),
+                row.get("payment_date", LocalDate.class),
+                Boolean.TRUE.equals(row.get("is_paid", Boolean.class)));
+    }
+}
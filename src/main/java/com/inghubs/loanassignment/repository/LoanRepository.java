@@ -1,10 +1,41 @@
 package com.inghubs.loanassignment.repository;
 
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.dto.LoanTotals;
 import com.inghubs.loanassignment.entity.Loan;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     List<Loan> findByCustomerId(Long customerId);
+
+    // row lock that serializes payments for the same loan until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Loan l where l.id = :id")
+    Optional<Loan> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select new com.inghubs.loanassignment.dto.LoanSummary(l.id, l.customer.id, l.loanAmount, l.numberOfInstallments, " +
+            "l.createDate, l.isPaid, l.remainingAmount, l.paidInstallmentCount, l.nextDueDate, l.nextDueAmount) " +
+            "from Loan l where l.customer.id = :customerId and l.id > :afterId " +
+            "and (:isPaid is null or l.isPaid = :isPaid) " +
+            "and (:installments is null or l.numberOfInstallments = :installments) " +
+            "and (:createdFrom is null or l.createDate >= :createdFrom) " +
+            "and (:createdTo is null or l.createDate <= :createdTo) " +
+            "order by l.id")
+    List<LoanSummary> findPage(@Param("customerId") Long customerId, @Param("afterId") Long afterId,
+                               @Param("isPaid") Boolean isPaid, @Param("installments") Integer installments,
+                               @Param("createdFrom") LocalDate createdFrom, @Param("createdTo") LocalDate createdTo,
+                               Limit limit);
+
+    @Query("select new com.inghubs.loanassignment.dto.LoanTotals(count(l), sum(l.remainingAmount), min(l.nextDueDate)) " +
+            "from Loan l where l.customer.id = :customerId and l.isPaid = false")
+    LoanTotals findActiveTotals(@Param("customerId") Long customerId);
 }
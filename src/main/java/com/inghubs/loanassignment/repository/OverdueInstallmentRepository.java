@@ -0,0 +1,47 @@
+package com.inghubs.loanassignment.repository;
+
+import com.inghubs.loanassignment.dto.OverdueInstallment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class OverdueInstallmentRepository {
+    // served by idx_installment_unpaid_due, a partial index on (due_date, id) where is_paid = false
+    private static final String OVERDUE_SELECT = "select i.id, l.customer_id, i.amount, i.due_date from loan_installment i "
+            + "join loan l on l.id = i.loan_id where i.is_paid = false and i.due_date < ?";
+    private static final String KEYSET_ORDER = " order by i.due_date, i.id limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OverdueInstallmentRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<OverdueInstallment> findOverdueAfter(LocalDate today, OverdueInstallment after, int limit) {
+        if (after == null)
+            return jdbcTemplate.query(OVERDUE_SELECT + KEYSET_ORDER, (rs, i) -> toOverdueInstallment(rs), Date.valueOf(today), limit);
+        return jdbcTemplate.query(OVERDUE_SELECT + " and (i.due_date, i.id) > (?, ?)" + KEYSET_ORDER, (rs, i) -> toOverdueInstallment(rs),
+                Date.valueOf(today), Date.valueOf(after.getDueDate()), after.getId(), limit);
+    }
+
+    // the is_paid guard keeps a payment that committed after the scan from being marked overdue
+    public void markOverdue(List<OverdueInstallment> installments) {
+        jdbcTemplate.batchUpdate("update loan_installment set overdue = true, accrued_penalty = ? where id = ? and is_paid = false",
+                installments.stream().map(inst -> new Object[]{inst.getAccruedPenalty(), inst.getId()}).toList());
+    }
+
+    private static OverdueInstallment toOverdueInstallment(ResultSet rs) throws SQLException {
+        return new OverdueInstallment(
+                rs.getLong("id"),
+                rs.getLong("customer_id"),
+                rs.getBigDecimal("amount"),
+                rs.getDate("due_date").toLocalDate(),
+                null);
+    }
+}
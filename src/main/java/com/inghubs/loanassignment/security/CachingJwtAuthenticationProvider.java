@@ -0,0 +1,96 @@
+package com.inghubs.loanassignment.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Remembers successful bearer authentications until the token expires, so a reused token skips
+// signature verification, claim validation and authority mapping.
+public class CachingJwtAuthenticationProvider implements AuthenticationProvider {
+    private final AuthenticationProvider delegate;
+    private final Cache<String, JwtAuthenticationToken> authentications;
+
+    public CachingJwtAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration defaultTtl) {
+        this(delegate, maximumSize, defaultTtl, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    CachingJwtAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration defaultTtl, Ticker ticker, Clock clock) {
+        this.delegate = delegate;
+        this.authentications = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(defaultTtl, clock.instant(), ticker.read()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        // keyed by a hash of the whole token: a jti alone is only trustworthy after the signature has been checked
+        String key = hash(bearer.getToken());
+        JwtAuthenticationToken cached = authentications.getIfPresent(key);
+        if (cached == null) {
+            cached = (JwtAuthenticationToken) delegate.authenticate(bearer);
+            authentications.put(key, cached);
+        }
+        // request details differ per call, so each request gets its own token around the shared jwt and authorities
+        JwtAuthenticationToken result = new JwtAuthenticationToken(cached.getToken(), cached.getAuthorities(), cached.getName());
+        result.setDetails(bearer.getDetails());
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return BearerTokenAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    Cache<String, JwtAuthenticationToken> cache() {
+        return authentications;
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // entries live until the token's exp, or defaultTtl for tokens without one. The wall clock is read once and
+    // advanced by the cache's ticker, so the remaining lifetime is measured on the same clock the cache expires by
+    private record TokenExpiry(Duration defaultTtl, Instant startedAt, long startedAtTicks) implements Expiry<String, JwtAuthenticationToken> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtAuthenticationToken value, long currentTime) {
+            Instant expiresAt = value.getToken().getExpiresAt();
+            if (expiresAt == null) return defaultTtl.toNanos();
+            Instant now = startedAt.plusNanos(currentTime - startedAtTicks);
+            return Math.max(0, Duration.between(now, expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtAuthenticationToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtAuthenticationToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
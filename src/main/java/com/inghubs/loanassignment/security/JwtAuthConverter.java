@@ -1,5 +1,7 @@
 package com.inghubs.loanassignment.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.lang.NonNull;
@@ -12,7 +14,9 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,6 +27,10 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
 
     private final JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter =
             new JwtGrantedAuthoritiesConverter();
+    // tokens carry a handful of scope/role combinations, so each resolves to one shared immutable set
+    private final Cache<List<Object>, Set<GrantedAuthority>> authoritiesByClaims = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
 
     @Value("${jwt.auth.converter.principle-attribute}")
     private String principleAttribute;
@@ -31,10 +39,12 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
 
     @Override
     public AbstractAuthenticationToken convert(@NonNull Jwt jwt) {
-        Collection<GrantedAuthority> authorities = Stream.concat(
+        Collection<String> resourceRoles = extractResourceRoles(jwt);
+        List<Object> claims = Arrays.asList(jwt.getClaims().get("scope"), jwt.getClaims().get("scp"), resourceRoles);
+        Set<GrantedAuthority> authorities = authoritiesByClaims.get(claims, key -> Stream.concat(
                 jwtGrantedAuthoritiesConverter.convert(jwt).stream(),
-                extractResourceRoles(jwt).stream()
-        ).collect(Collectors.toSet());
+                resourceRoles.stream().map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+        ).collect(Collectors.toUnmodifiableSet()));
 
         return new JwtAuthenticationToken(
                 jwt,
@@ -51,24 +61,21 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
         return jwt.getClaim(claimName);
     }
 
-    private Collection<? extends GrantedAuthority> extractResourceRoles(Jwt jwt) {
+    private Collection<String> extractResourceRoles(Jwt jwt) {
         Map<String, Object> resourceAccess;
         Map<String, Object> resource;
         Collection<String> resourceRoles;
         if (jwt.getClaim("resource_access") == null) {
-            return Set.of();
+            return List.of();
         }
         resourceAccess = jwt.getClaim("resource_access");
 
         if (resourceAccess.get(resourceId) == null) {
-            return Set.of();
+            return List.of();
         }
         resource = (Map<String, Object>) resourceAccess.get(resourceId);
 
         resourceRoles = (Collection<String>) resource.get("roles");
-        return resourceRoles
-                .stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                .collect(Collectors.toSet());
+        return resourceRoles == null ? List.of() : resourceRoles;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.inghubs.loanassignment.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.text.ParseException;
+
+@Slf4j
+@Configuration
+public class JwtDecoderConfig {
+
+    // refreshes the key set ahead of expiry so key rotation never stalls a request on a JWKS fetch
+    @Bean
+    @Profile("!loadtest")
+    public JWKSource<SecurityContext> jwkSource(@Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri)
+            throws MalformedURLException {
+        return JWKSourceBuilder.create(new URL(jwkSetUri))
+                .refreshAheadCache(true)
+                .build();
+    }
+
+    // load tests verify signatures against a fixed key set, so they run without the identity provider
+    @Bean
+    @Profile("loadtest")
+    public JWKSource<SecurityContext> offlineJwkSource(@Value("${jwt.loadtest.jwk-set-location}") Resource jwkSetLocation)
+            throws IOException, ParseException {
+        try (InputStream in = jwkSetLocation.getInputStream()) {
+            return new ImmutableJWKSet<>(JWKSet.load(in));
+        }
+    }
+
+    // same RS256 + issuer validation as the auto-configured decoder, backed by the shared key source
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> jwkSetPrewarm(JWKSource<SecurityContext> jwkSource) {
+        return event -> prewarm(jwkSource);
+    }
+
+    static int prewarm(JWKSource<SecurityContext> jwkSource) {
+        try {
+            int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+            log.info("Prewarmed JWK set with {} keys", keys);
+            return keys;
+        } catch (KeySourceException e) {
+            // the identity provider may come up after us; the first request then fetches the keys
+            log.warn("JWK set prewarm failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
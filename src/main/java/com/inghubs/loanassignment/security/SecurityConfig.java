@@ -1,13 +1,20 @@
 package com.inghubs.loanassignment.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
 
@@ -18,6 +25,12 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 public class SecurityConfig {
 
     private final JwtAuthConverter jwtAuthConverter;
+    private final JwtDecoder jwtDecoder;
+
+    @Value("${jwt.auth.cache.maximum-size:10000}")
+    private long authCacheSize;
+    @Value("${jwt.auth.cache.default-ttl:5m}")
+    private Duration authCacheDefaultTtl;
 
 
     @Bean
@@ -32,7 +45,7 @@ public class SecurityConfig {
         http
                 .oauth2ResourceServer()
                 .jwt()
-                .jwtAuthenticationConverter(jwtAuthConverter);
+                .authenticationManager(jwtAuthenticationManager());
 
         http
                 .sessionManagement()
@@ -40,4 +53,10 @@ public class SecurityConfig {
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    private AuthenticationManager jwtAuthenticationManager() {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(jwtAuthConverter);
+        return new ProviderManager(new CachingJwtAuthenticationProvider(provider, authCacheSize, authCacheDefaultTtl));
+    }
+}
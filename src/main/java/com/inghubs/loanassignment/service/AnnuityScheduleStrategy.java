@@ -0,0 +1,39 @@
+package com.inghubs.loanassignment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// French amortization: interestRate is the nominal annual rate and every installment but the last is the same
+final class AnnuityScheduleStrategy implements ScheduleStrategy {
+
+    // payment per unit of principal only depends on the term and the rate, so it is computed once per pair
+    private final Cache<PaymentFactorKey, Double> paymentFactors = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    @Override
+    public long[] amounts(long principalMinor, long rateMicros, int installments) {
+        long payment = Math.round(principalMinor * paymentFactor(installments, rateMicros));
+        long[] amounts = new long[installments];
+        long balance = principalMinor;
+        for (int i = 0; i < installments - 1; i++) {
+            long interest = InstallmentPricing.monthlyInterestMinor(balance, rateMicros);
+            amounts[i] = payment;
+            balance -= payment - interest;
+        }
+        // the last installment clears whatever rounding left on the balance
+        amounts[installments - 1] = balance + InstallmentPricing.monthlyInterestMinor(balance, rateMicros);
+        return amounts;
+    }
+
+    double paymentFactor(int installments, long rateMicros) {
+        return paymentFactors.get(new PaymentFactorKey(installments, rateMicros), key -> {
+            double monthlyRate = (double) rateMicros / InstallmentPricing.RATE_UNIT / InstallmentPricing.MONTHS_PER_YEAR;
+            if (monthlyRate == 0) return 1.0 / installments;
+            return monthlyRate / (1 - StrictMath.pow(1 + monthlyRate, -installments));
+        });
+    }
+
+    private record PaymentFactorKey(int installments, long rateMicros) {
+    }
+}
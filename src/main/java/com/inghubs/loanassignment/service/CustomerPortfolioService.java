@@ -0,0 +1,109 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
+import com.inghubs.loanassignment.dto.LoanTotals;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.CustomerDelinquency;
+import com.inghubs.loanassignment.entity.CustomerPortfolio;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.repository.CustomerDelinquencyRepository;
+import com.inghubs.loanassignment.repository.CustomerPortfolioRepository;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Service
+public class CustomerPortfolioService {
+    private final CustomerPortfolioRepository portfolioRepo;
+    private final CustomerRepository customerRepo;
+    private final LoanRepository loanRepo;
+    private final CustomerDelinquencyRepository delinquencyRepo;
+
+    public CustomerPortfolioService(CustomerPortfolioRepository portfolioRepo, CustomerRepository customerRepo,
+                                    LoanRepository loanRepo, CustomerDelinquencyRepository delinquencyRepo) {
+        this.portfolioRepo = portfolioRepo;
+        this.customerRepo = customerRepo;
+        this.loanRepo = loanRepo;
+        this.delinquencyRepo = delinquencyRepo;
+    }
+
+    // a single primary key read; customers the read model has not seen yet are computed from the loan tables
+    public CustomerPortfolioSummary getPortfolio(Long customerId) {
+        return portfolioRepo.findSummary(customerId).orElseGet(() -> {
+            Customer customer = customerRepo.findById(customerId).orElseThrow(() -> new RuntimeException("Customer not found"));
+            return toSummary(build(customer));
+        });
+    }
+
+    // the row changes together with the write it reflects, so callers must hold the transaction
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void customerCreated(Customer customer) {
+        portfolioRepo.save(newPortfolio(customer));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void customerUpdated(Customer customer) {
+        portfolioRepo.updateCreditLimit(customer.getId(), customer.getCreditLimit(), Instant.now());
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void customerDeleted(Long customerId) {
+        portfolioRepo.deleteByCustomerId(customerId);
+    }
+
+    // callers hold the customer row lock from the credit reservation, so the rebuild cannot race another insert
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void loansCreated(Customer customer, int count, BigDecimal amount, LocalDate firstDueDate) {
+        if (portfolioRepo.addLoans(customer.getId(), count, amount, firstDueDate, Instant.now()) == 0) {
+            portfolioRepo.save(build(customerRepo.findById(customer.getId()).orElse(customer)));
+        }
+    }
+
+    // payments hold only their loan's lock, so the portfolio row is locked before the next due date is re-derived;
+    // a missing row is left to the next loan creation, which rebuilds it under the customer lock
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void paymentApplied(Loan loan, BigDecimal paidAmount, BigDecimal overduePaid) {
+        Long customerId = loan.getCustomer().getId();
+        if (portfolioRepo.findByIdForUpdate(customerId).isEmpty()) return;
+        portfolioRepo.applyPayment(customerId, paidAmount, overduePaid, loan.isPaid() ? 1 : 0, Instant.now());
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void overdueEvaluated(Instant evaluatedAt) {
+        portfolioRepo.refreshOverdueAmounts(evaluatedAt);
+    }
+
+    private CustomerPortfolio build(Customer customer) {
+        LoanTotals totals = loanRepo.findActiveTotals(customer.getId());
+        CustomerPortfolio portfolio = newPortfolio(customer);
+        portfolio.setActiveLoans(totals.getActiveLoans().intValue());
+        if (totals.getTotalOutstanding() != null) portfolio.setTotalOutstanding(totals.getTotalOutstanding());
+        portfolio.setNextDueDate(totals.getNextDueDate());
+        delinquencyRepo.findById(customer.getId())
+                .map(CustomerDelinquency::getOverdueAmount)
+                .ifPresent(portfolio::setOverdueAmount);
+        return portfolio;
+    }
+
+    private static CustomerPortfolio newPortfolio(Customer customer) {
+        CustomerPortfolio portfolio = new CustomerPortfolio();
+        portfolio.setCustomerId(customer.getId());
+        portfolio.setCreditLimit(customer.getCreditLimit());
+        portfolio.setUsedCreditLimit(customer.getUsedCreditLimit());
+        portfolio.setUpdatedAt(Instant.now());
+        return portfolio;
+    }
+
+    private static CustomerPortfolioSummary toSummary(CustomerPortfolio portfolio) {
+        BigDecimal headroom = portfolio.getCreditLimit() == null || portfolio.getUsedCreditLimit() == null
+                ? null : portfolio.getCreditLimit().subtract(portfolio.getUsedCreditLimit());
+        return new CustomerPortfolioSummary(portfolio.getCustomerId(), portfolio.getCreditLimit(), portfolio.getUsedCreditLimit(),
+                headroom, portfolio.getActiveLoans(), portfolio.getTotalOutstanding(), portfolio.getNextDueDate(),
+                portfolio.getOverdueAmount(), portfolio.getUpdatedAt());
+    }
+}
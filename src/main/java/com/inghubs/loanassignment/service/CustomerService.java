@@ -1,11 +1,22 @@
 package com.inghubs.loanassignment.service;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.config.CacheConfig;
+import com.inghubs.loanassignment.dto.CustomerPage;
 import com.inghubs.loanassignment.dto.CustomerRequest;
+import com.inghubs.loanassignment.dto.CustomerSummary;
 import com.inghubs.loanassignment.entity.Customer;
 import com.inghubs.loanassignment.repository.CustomerRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,39 +24,81 @@ import java.util.Optional;
 @Service
 public class CustomerService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
     private final CustomerRepository customerRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxService outbox;
+    private final CustomerPortfolioService portfolios;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, ObjectMapper objectMapper, OutboxService outbox,
+                           CustomerPortfolioService portfolios) {
         this.customerRepository = customerRepository;
+        this.objectMapper = objectMapper;
+        this.outbox = outbox;
+        this.portfolios = portfolios;
     }
 
+    @Transactional
     public Customer createCustomer(CustomerRequest dto) {
         Customer customer = new Customer();
         customer.setName(dto.getName());
         customer.setSurname(dto.getSurname());
         customer.setCreditLimit(dto.getCreditLimit());
         customer.setUsedCreditLimit(dto.getUsedCreditLimit());
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        outbox.customerChanged(OutboxService.CUSTOMER_CREATED, saved);
+        portfolios.customerCreated(saved);
+        return saved;
+    }
+
+    public CustomerPage getCustomers(Long afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<CustomerSummary> items = customerRepository.findPageAfter(afterId == null ? 0L : afterId, Limit.of(pageSize));
+        Long nextCursor = items.size() < pageSize ? null : items.get(items.size() - 1).getId();
+        return new CustomerPage(items, nextCursor);
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    public void exportCustomers(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            Long afterId = 0L;
+            List<CustomerSummary> page;
+            do {
+                page = customerRepository.findPageAfter(afterId, Limit.of(MAX_PAGE_SIZE));
+                for (CustomerSummary customer : page) {
+                    generator.writeObject(customer);
+                    afterId = customer.getId();
+                }
+                generator.flush();
+            } while (page.size() == MAX_PAGE_SIZE);
+            generator.writeEndArray();
+        }
     }
 
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#id", unless = "#result == null")
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public Customer updateCustomer(Long id, CustomerRequest dto) {
-        return customerRepository.findById(id).map(existing -> {
-            existing.setName(dto.getName());
-            existing.setSurname(dto.getSurname());
-            existing.setCreditLimit(dto.getCreditLimit());
-            return customerRepository.save(existing);
-        }).orElseThrow(() -> new RuntimeException("Customer not found"));
+        if (customerRepository.updateProfile(id, dto.getName(), dto.getSurname(), dto.getCreditLimit()) == 0)
+            throw new RuntimeException("Customer not found");
+        Customer saved = customerRepository.findById(id).orElseThrow(() -> new RuntimeException("Customer not found"));
+        outbox.customerChanged(OutboxService.CUSTOMER_UPDATED, saved);
+        portfolios.customerUpdated(saved);
+        return saved;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public void deleteCustomer(Long id) {
+        // lock the customer before touching its portfolio, in the same order as loan creation, so the two cannot deadlock
+        customerRepository.findByIdForUpdate(id);
+        portfolios.customerDeleted(id);
         customerRepository.deleteById(id);
+        outbox.customerDeleted(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.inghubs.loanassignment.service;
+
+// equal principal parts plus a month of interest (nominal annual interestRate) on the balance still outstanding
+final class DecliningBalanceScheduleStrategy implements ScheduleStrategy {
+
+    @Override
+    public long[] amounts(long principalMinor, long rateMicros, int installments) {
+        long principalPart = principalMinor / installments;
+        long[] amounts = new long[installments];
+        long balance = principalMinor;
+        for (int i = 0; i < installments; i++) {
+            long part = i < installments - 1 ? principalPart : balance;
+            amounts[i] = part + InstallmentPricing.monthlyInterestMinor(balance, rateMicros);
+            balance -= part;
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,16 @@
+package com.inghubs.loanassignment.service;
+
+import java.util.Arrays;
+
+// interestRate is charged once on the principal and spread evenly; the last installment absorbs the remainder
+final class FlatScheduleStrategy implements ScheduleStrategy {
+
+    @Override
+    public long[] amounts(long principalMinor, long rateMicros, int installments) {
+        long total = InstallmentPricing.totalMinor(principalMinor, rateMicros);
+        long[] amounts = new long[installments];
+        Arrays.fill(amounts, InstallmentPricing.installmentMinor(total, installments));
+        amounts[installments - 1] = InstallmentPricing.lastInstallmentMinor(total, installments);
+        return amounts;
+    }
+}
@@ -0,0 +1,7 @@
+package com.inghubs.loanassignment.service;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.inghubs.loanassignment.service;
+
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,160 @@
+package com.inghubs.loanassignment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.config.CacheConfig;
+import com.inghubs.loanassignment.entity.IdempotencyRecord;
+import com.inghubs.loanassignment.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+    private final IdempotencyRecordRepository recordRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache responses;
+    private final Duration waitTimeout;
+    private final Duration ttl;
+    private final ConcurrentMap<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepo, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                              CacheManager cacheManager, @Value("${loan.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                              @Value("${loan.idempotency.ttl:24h}") Duration ttl) {
+        this.recordRepo = recordRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.responses = cacheManager.getCache(CacheConfig.IDEMPOTENCY);
+        this.waitTimeout = waitTimeout;
+        this.ttl = ttl;
+    }
+
+    public <T> T execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) return action.get();
+        String requestHash = hash(operation, request);
+
+        while (true) {
+            IdempotencyRecord stored = find(key);
+            if (stored != null) return replay(stored, requestHash, responseType);
+
+            CompletableFuture<IdempotencyRecord> execution = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, execution);
+            if (running != null) {
+                try {
+                    return replay(running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), requestHash, responseType);
+                } catch (ExecutionException e) {
+                    // the first execution failed and stored nothing, so this request gets its own attempt
+                    continue;
+                } catch (TimeoutException e) {
+                    throw new IdempotencyInProgressException("Request with this idempotency key is still in progress");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IdempotencyInProgressException("Request with this idempotency key is still in progress");
+                }
+            }
+
+            try {
+                stored = find(key);
+                if (stored != null) {
+                    execution.complete(stored);
+                    return replay(stored, requestHash, responseType);
+                }
+                IdempotencyRecord record = new IdempotencyRecord();
+                T response = transactionTemplate.execute(status -> {
+                    T result = action.get();
+                    record.setIdempotencyKey(key);
+                    record.setOperation(operation);
+                    record.setRequestHash(requestHash);
+                    record.setResponseBody(write(result));
+                    record.setCreatedAt(Instant.now());
+                    recordRepo.saveAndFlush(record);
+                    return result;
+                });
+                responses.put(key, record);
+                execution.complete(record);
+                return response;
+            } catch (DataIntegrityViolationException e) {
+                // another instance committed the same key first; its transaction wins and ours was rolled back
+                IdempotencyRecord winner = recordRepo.findById(key).orElse(null);
+                if (winner == null) {
+                    execution.completeExceptionally(e);
+                    throw e;
+                }
+                execution.complete(winner);
+                return replay(winner, requestHash, responseType);
+            } catch (RuntimeException e) {
+                execution.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, execution);
+            }
+        }
+    }
+
+    // a key older than the ttl is forgotten, and a retry with it runs as a new request
+    @Scheduled(cron = "${loan.idempotency.cleanup-cron:0 45 1 * * *}")
+    public void purgeExpired() {
+        purgeCreatedBefore(Instant.now().minus(ttl));
+    }
+
+    int purgeCreatedBefore(Instant cutoff) {
+        Integer purged = transactionTemplate.execute(status -> recordRepo.deleteCreatedBefore(cutoff));
+        return purged == null ? 0 : purged;
+    }
+
+    private IdempotencyRecord find(String key) {
+        IdempotencyRecord cached = responses.get(key, IdempotencyRecord.class);
+        if (cached != null) return cached;
+        IdempotencyRecord stored = recordRepo.findById(key).orElse(null);
+        if (stored != null) responses.put(key, stored);
+        return stored;
+    }
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash))
+            throw new IdempotencyConflictException("Idempotency key was used with a different request");
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response is not readable", e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.entity.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Stand-in for tests and local runs; keeps every published event in memory.
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package com.inghubs.loanassignment.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+final class InstallmentPricing {
+    static final int SCALE = 2;
+    static final long RATE_UNIT = 1_000_000;
+    static final long DAILY_ADJUSTMENT_DIVISOR = 1_000;
+    static final int MONTHS_PER_YEAR = 12;
+
+    private InstallmentPricing() {
+    }
+
+    static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    static long rateMicros(double rate) {
+        return Math.round(rate * RATE_UNIT);
+    }
+
+    static long totalMinor(long principalMinor, long rateMicros) {
+        return divideHalfUp(Math.multiplyExact(principalMinor, RATE_UNIT + rateMicros), RATE_UNIT);
+    }
+
+    static long installmentMinor(long totalMinor, int installments) {
+        return totalMinor / installments;
+    }
+
+    static long lastInstallmentMinor(long totalMinor, int installments) {
+        return totalMinor - installmentMinor(totalMinor, installments) * (installments - 1);
+    }
+
+    static long monthlyInterestMinor(long balanceMinor, long annualRateMicros) {
+        return divideHalfUp(Math.multiplyExact(balanceMinor, annualRateMicros), RATE_UNIT * MONTHS_PER_YEAR);
+    }
+
+    static long payableMinor(long amountMinor, LocalDate dueDate, LocalDate now) {
+        long days = ChronoUnit.DAYS.between(now, dueDate);
+        if (days == 0) return amountMinor;
+        long adjustment = divideHalfUp(Math.multiplyExact(amountMinor, Math.abs(days)), DAILY_ADJUSTMENT_DIVISOR);
+        return days > 0 ? amountMinor - adjustment : amountMinor + adjustment;
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) quotient += Long.signum(dividend);
+        return quotient;
+    }
+}
@@ -0,0 +1,15 @@
+package com.inghubs.loanassignment.service;
+
+import java.time.LocalDate;
+
+// amounts[i] is due on dueDates[i]; dueDates is a shared template and must not be modified
+record InstallmentSchedule(long[] amounts, LocalDate[] dueDates, long totalMinor) {
+
+    static InstallmentSchedule of(long[] amounts, LocalDate[] dueDates) {
+        long total = 0;
+        for (long amount : amounts) {
+            total += amount;
+        }
+        return new InstallmentSchedule(amounts, dueDates, total);
+    }
+}
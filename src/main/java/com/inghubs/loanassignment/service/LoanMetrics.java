@@ -0,0 +1,65 @@
+package com.inghubs.loanassignment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+@Component
+public class LoanMetrics {
+    static final String CREDIT_CHECK = "loan.create.credit.check";
+    static final String LOAN_INSERT = "loan.create.loan.insert";
+    static final String SCHEDULE_INSERT = "loan.create.schedule.insert";
+    static final String INSTALLMENT_FETCH = "loan.payment.installment.fetch";
+    static final String PAYMENT_CALCULATION = "loan.payment.calculation";
+    static final String PAYMENT_FLUSH = "loan.payment.flush";
+    static final String OVERDUE_SCAN = "loan.overdue.scan";
+    static final String OUTBOX_RELAY = "loan.outbox.relay";
+    static final String REJECTED_LOANS = "loan.rejections";
+    static final String INSTALLMENTS_PAID = "loan.payments.installments.paid";
+    static final String PAYMENT_REMAINDER = "loan.payments.remainder";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final DistributionSummary installmentsPaid;
+    private final DistributionSummary paymentRemainder;
+
+    public LoanMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.installmentsPaid = DistributionSummary.builder(INSTALLMENTS_PAID)
+                .description("Installments settled by a single payment")
+                .baseUnit("installments")
+                .register(meterRegistry);
+        this.paymentRemainder = DistributionSummary.builder(PAYMENT_REMAINDER)
+                .description("Payment amount left over after settling installments")
+                .register(meterRegistry);
+    }
+
+    public <T> T observe(String stage, Supplier<T> action) {
+        return Observation.createNotStarted(stage, observationRegistry).observe(action);
+    }
+
+    public void observe(String stage, Runnable action) {
+        Observation.createNotStarted(stage, observationRegistry).observe(action);
+    }
+
+    public void loanRejected(String reason) {
+        Counter.builder(REJECTED_LOANS)
+                .description("Loan requests rejected by validation or credit check")
+                .tag("reason", reason.toLowerCase(Locale.ROOT).replace(' ', '_'))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void paymentApplied(int paidCount, BigDecimal remainder) {
+        installmentsPaid.record(paidCount);
+        paymentRemainder.record(remainder.doubleValue());
+    }
+}
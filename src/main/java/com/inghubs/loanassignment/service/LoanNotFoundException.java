@@ -0,0 +1,8 @@
+package com.inghubs.loanassignment.service;
+
+// still a plain RuntimeException for the API (404), but lets batch callers reject the record without a rollback
+public class LoanNotFoundException extends RuntimeException {
+    public LoanNotFoundException() {
+        super("Loan not found");
+    }
+}
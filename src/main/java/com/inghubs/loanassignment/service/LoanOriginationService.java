@@ -0,0 +1,197 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.CacheConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.LoanBatchItemResult;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanOriginationService {
+    private final CustomerRepository customerRepo;
+    private final LoanRepository loanRepo;
+    private final LoanInstallmentRepository installmentRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final LoanMetrics metrics;
+    private final OutboxService outbox;
+    private final CustomerPortfolioService portfolios;
+    private final int batchSize;
+
+    public LoanOriginationService(CustomerRepository customerRepo, LoanRepository loanRepo, LoanInstallmentRepository installmentRepo,
+                                  TransactionTemplate transactionTemplate, CacheManager cacheManager, LoanMetrics metrics,
+                                  OutboxService outbox, CustomerPortfolioService portfolios,
+                                  @Value("${loan.origination.batch-size:500}") int batchSize) {
+        this.customerRepo = customerRepo;
+        this.loanRepo = loanRepo;
+        this.installmentRepo = installmentRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.metrics = metrics;
+        this.outbox = outbox;
+        this.portfolios = portfolios;
+        this.batchSize = batchSize;
+    }
+
+    public List<LoanBatchItemResult> createLoans(List<CreateLoanRequest> requests) {
+        LoanBatchItemResult[] results = new LoanBatchItemResult[requests.size()];
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Long customerId = requests.get(i).getCustomerId();
+            if (customerId == null) {
+                results[i] = LoanBatchItemResult.rejected(i, null, "Customer not found");
+            } else {
+                groups.computeIfAbsent(customerId, id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<List<Integer>> chunk = new ArrayList<>();
+        int chunkLoans = 0;
+        for (List<Integer> group : groups.values()) {
+            chunk.add(group);
+            chunkLoans += group.size();
+            if (chunkLoans >= batchSize) {
+                processChunk(chunk, requests, results);
+                chunk = new ArrayList<>();
+                chunkLoans = 0;
+            }
+        }
+        if (!chunk.isEmpty()) processChunk(chunk, requests, results);
+        return Arrays.asList(results);
+    }
+
+    private void processChunk(List<List<Integer>> groups, List<CreateLoanRequest> requests, LoanBatchItemResult[] results) {
+        // rejections are counted only once the chunk commits, so a chunk replayed group by group counts them once
+        List<String> rejections = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> originate(groups, requests, results, rejections));
+            rejections.forEach(metrics::loanRejected);
+        } catch (RuntimeException e) {
+            if (groups.size() == 1) {
+                rejectGroup(groups.get(0), requests, results, e.getMessage() != null ? e.getMessage() : e.toString());
+                return;
+            }
+            for (List<Integer> group : groups) {
+                processChunk(List.of(group), requests, results);
+            }
+        }
+    }
+
+    private void originate(List<List<Integer>> groups, List<CreateLoanRequest> requests, LoanBatchItemResult[] results,
+                           List<String> rejections) {
+        List<Long> customerIds = groups.stream().map(group -> requests.get(group.get(0)).getCustomerId()).toList();
+        Map<Long, Customer> customers = customerRepo.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<Loan> loans = new ArrayList<>();
+        List<InstallmentSchedule> loanSchedules = new ArrayList<>();
+        List<Integer> loanIndexes = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        for (List<Integer> group : groups) {
+            Customer customer = customers.get(requests.get(group.get(0)).getCustomerId());
+            if (customer == null) {
+                rejectGroup(group, requests, results, "Customer not found");
+                continue;
+            }
+
+            BigDecimal headroom = customer.getCreditLimit().subtract(customer.getUsedCreditLimit());
+            BigDecimal reserved = BigDecimal.ZERO;
+            List<Integer> accepted = new ArrayList<>();
+            List<InstallmentSchedule> schedules = new ArrayList<>();
+            for (int index : group) {
+                CreateLoanRequest request = requests.get(index);
+                try {
+                    LoanService.validateLoanRequest(request);
+                } catch (IllegalArgumentException e) {
+                    reject(results, rejections, index, customer.getId(), e.getMessage());
+                    continue;
+                }
+                InstallmentSchedule schedule = LoanService.schedule(request);
+                BigDecimal totalAmount = InstallmentPricing.toAmount(schedule.totalMinor());
+                if (headroom.subtract(reserved).compareTo(totalAmount) < 0) {
+                    reject(results, rejections, index, customer.getId(), "Insufficient credit limit");
+                    continue;
+                }
+                reserved = reserved.add(totalAmount);
+                accepted.add(index);
+                schedules.add(schedule);
+            }
+            if (accepted.isEmpty()) continue;
+
+            if (customerRepo.reserveCredit(customer.getId(), reserved) == 0) {
+                for (int index : accepted) {
+                    reject(results, rejections, index, customer.getId(), "Insufficient credit limit");
+                }
+                continue;
+            }
+            evictCustomer(customer.getId());
+            reservations.add(new Reservation(customer, accepted.size(), reserved, earliestDueDate(schedules)));
+            for (int i = 0; i < accepted.size(); i++) {
+                loans.add(LoanService.newLoan(customer, requests.get(accepted.get(i)), schedules.get(i)));
+                loanSchedules.add(schedules.get(i));
+                loanIndexes.add(accepted.get(i));
+            }
+        }
+
+        List<LoanInstallment> installments = new ArrayList<>();
+        loanRepo.saveAll(loans);
+        for (int i = 0; i < loans.size(); i++) {
+            Loan loan = loans.get(i);
+            installments.addAll(LoanService.newInstallments(loan, loanSchedules.get(i)));
+            int index = loanIndexes.get(i);
+            results[index] = LoanBatchItemResult.created(index, loan.getCustomer().getId(), loan.getId());
+        }
+        installmentRepo.saveAll(installments);
+        outbox.loansCreated(loans);
+        for (Reservation reservation : reservations) {
+            portfolios.loansCreated(reservation.customer(), reservation.loans(), reservation.amount(), reservation.firstDueDate());
+        }
+    }
+
+    private static LocalDate earliestDueDate(List<InstallmentSchedule> schedules) {
+        LocalDate earliest = null;
+        for (InstallmentSchedule schedule : schedules) {
+            LocalDate dueDate = schedule.dueDates()[0];
+            if (earliest == null || dueDate.isBefore(earliest)) earliest = dueDate;
+        }
+        return earliest;
+    }
+
+    private static void reject(LoanBatchItemResult[] results, List<String> rejections, int index, Long customerId, String reason) {
+        results[index] = LoanBatchItemResult.rejected(index, customerId, reason);
+        rejections.add(reason);
+    }
+
+    private void evictCustomer(Long customerId) {
+        Cache customers = cacheManager.getCache(CacheConfig.CUSTOMERS);
+        if (customers != null) customers.evict(customerId);
+    }
+
+    private static void rejectGroup(List<Integer> indexes, List<CreateLoanRequest> requests, LoanBatchItemResult[] results, String error) {
+        for (int index : indexes) {
+            results[index] = LoanBatchItemResult.rejected(index, requests.get(index).getCustomerId(), error);
+        }
+    }
+
+    private record Reservation(Customer customer, int loans, BigDecimal amount, LocalDate firstDueDate) {
+    }
+}
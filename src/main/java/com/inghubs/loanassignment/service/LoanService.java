@@ -1,123 +1,264 @@
 package com.inghubs.loanassignment.service;
 
 
+import com.inghubs.loanassignment.config.CacheConfig;
 import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.InstallmentQuote;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanPage;
+import com.inghubs.loanassignment.dto.LoanSummary;
 import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.dto.PaymentQuote;
 import com.inghubs.loanassignment.entity.Customer;
 import com.inghubs.loanassignment.entity.Loan;
 import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.entity.ScheduleType;
 import com.inghubs.loanassignment.repository.CustomerRepository;
 import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
 import com.inghubs.loanassignment.repository.LoanRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.crossstore.ChangeSetPersister;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class LoanService {
+    static final int MAX_PAGE_SIZE = 500;
+    static final int PAYABLE_MONTHS = 3;
+    private static final String QUOTE_KEY = "{#loanId, T(java.time.LocalDate).now()}";
+    private static final String PAYMENT_QUOTE_KEY = "{#request.loanId, T(java.time.LocalDate).now()}";
+
     private final CustomerRepository customerRepo;
     private final LoanRepository loanRepo;
     private final LoanInstallmentRepository installmentRepo;
+    private final LoanMetrics metrics;
+    private final OutboxService outbox;
+    private final CustomerPortfolioService portfolios;
 
-    public LoanService(CustomerRepository customerRepo, LoanRepository loanRepo, LoanInstallmentRepository installmentRepo) {
+    public LoanService(CustomerRepository customerRepo, LoanRepository loanRepo, LoanInstallmentRepository installmentRepo,
+                       LoanMetrics metrics, OutboxService outbox, CustomerPortfolioService portfolios) {
         this.customerRepo = customerRepo;
         this.loanRepo = loanRepo;
         this.installmentRepo = installmentRepo;
+        this.metrics = metrics;
+        this.outbox = outbox;
+        this.portfolios = portfolios;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#request.customerId")
     public Loan createLoan(CreateLoanRequest request) {
         return handleCreateLoan(request);
     }
 
     private Loan handleCreateLoan(CreateLoanRequest request) {
+        CreditReservation reservation;
+        try {
+            reservation = metrics.observe(LoanMetrics.CREDIT_CHECK, () -> reserveCredit(request));
+        } catch (IllegalArgumentException e) {
+            metrics.loanRejected(e.getMessage());
+            throw e;
+        }
+
+        Loan loan = newLoan(reservation.customer(), request, reservation.schedule());
+        metrics.observe(LoanMetrics.LOAN_INSERT, () -> loanRepo.saveAndFlush(loan));
+        metrics.observe(LoanMetrics.SCHEDULE_INSERT, () -> installmentRepo.saveAllAndFlush(newInstallments(loan, reservation.schedule())));
+        outbox.loansCreated(List.of(loan));
+        portfolios.loansCreated(loan.getCustomer(), 1, loan.getLoanAmount(), loan.getNextDueDate());
+        return loan;
+    }
+
+    private CreditReservation reserveCredit(CreateLoanRequest request) {
         Customer customer = customerRepo.findById(request.getCustomerId()).orElseThrow(()-> new RuntimeException("Customer not found"));
+        validateLoanRequest(request);
+
+        InstallmentSchedule schedule = schedule(request);
+        if (customerRepo.reserveCredit(customer.getId(), InstallmentPricing.toAmount(schedule.totalMinor())) == 0)
+            throw new IllegalArgumentException("Insufficient credit limit");
+        return new CreditReservation(customerRepo.findById(customer.getId()).orElseThrow(()-> new RuntimeException("Customer not found")), schedule);
+    }
+
+    static void validateLoanRequest(CreateLoanRequest request) {
         if (request.getInstallments() != 6 && request.getInstallments() != 9 && request.getInstallments() != 12 && request.getInstallments() != 24)
             throw new IllegalArgumentException("Invalid installment count");
         if (request.getInterestRate() < 0.1 || request.getInterestRate() > 0.5)
             throw new IllegalArgumentException("Invalid interest rate");
+        if (request.getAmount() == null || request.getAmount().signum() <= 0)
+            throw new IllegalArgumentException("Invalid loan amount");
+    }
 
-        BigDecimal totalAmount = request.getAmount().multiply(BigDecimal.valueOf(1 + request.interestRate));
-        if (customer.getCreditLimit().subtract(customer.getUsedCreditLimit()).compareTo(totalAmount) < 0)
-            throw new IllegalArgumentException("Insufficient credit limit");
+    static InstallmentSchedule schedule(CreateLoanRequest request) {
+        return ScheduleEngine.generate(scheduleType(request), InstallmentPricing.toMinor(request.getAmount()),
+                InstallmentPricing.rateMicros(request.getInterestRate()), request.getInstallments(), LocalDate.now());
+    }
 
-        customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(totalAmount));
+    static Loan newLoan(Customer customer, CreateLoanRequest request, InstallmentSchedule schedule) {
+        BigDecimal totalAmount = InstallmentPricing.toAmount(schedule.totalMinor());
 
         Loan loan = new Loan();
         loan.setCustomer(customer);
         loan.setLoanAmount(totalAmount);
         loan.setNumberOfInstallments(request.getInstallments());
+        loan.setScheduleType(scheduleType(request));
         loan.setCreateDate(LocalDate.now());
-        loanRepo.save(loan);
+        loan.setRemainingAmount(totalAmount);
+        loan.setNextDueDate(schedule.dueDates()[0]);
+        loan.setNextDueAmount(InstallmentPricing.toAmount(schedule.amounts()[0]));
+        return loan;
+    }
 
-        BigDecimal installmentAmount = totalAmount.divide(BigDecimal.valueOf(request.getInstallments()), BigDecimal.ROUND_HALF_UP);
-        LocalDate dueDate = LocalDate.now().with(TemporalAdjusters.firstDayOfNextMonth());
-        for (int i = 0; i < request.getInstallments(); i++) {
+    static List<LoanInstallment> newInstallments(Loan loan, InstallmentSchedule schedule) {
+        long[] amounts = schedule.amounts();
+        LocalDate[] dueDates = schedule.dueDates();
+        List<LoanInstallment> installments = new ArrayList<>(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
             LoanInstallment inst = new LoanInstallment();
             inst.setLoan(loan);
-            inst.setAmount(installmentAmount);
-            inst.setDueDate(dueDate.plusMonths(i));
-            installmentRepo.save(inst);
+            inst.setAmount(InstallmentPricing.toAmount(amounts[i]));
+            inst.setDueDate(dueDates[i]);
+            installments.add(inst);
         }
-        return loan;
+        return installments;
+    }
+
+    private static ScheduleType scheduleType(CreateLoanRequest request) {
+        return request.getScheduleType() == null ? ScheduleType.FLAT : request.getScheduleType();
     }
 
-    public List<Loan> listLoans(Long customerId) {
-        return loanRepo.findByCustomerId(customerId);
+    public LoanPage listLoans(Long customerId, LoanFilter filter, Long afterId, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<LoanSummary> items = loanRepo.findPage(customerId, afterId == null ? 0L : afterId, filter.getIsPaid(),
+                filter.getInstallments(), filter.getCreatedFrom(), filter.getCreatedTo(), Limit.of(pageSize));
+        Long nextCursor = items.size() < pageSize ? null : items.get(items.size() - 1).getId();
+        return new LoanPage(items, nextCursor);
     }
 
-    public List<LoanInstallment> listInstallments(Long loanId) {
-        return installmentRepo.findByLoanIdOrderByDueDateAsc(loanId);
+    // cached as detached DTOs: entities would pin their loan and customer graph and could be mutated by callers
+    @Cacheable(cacheNames = CacheConfig.INSTALLMENTS, key = "#loanId", unless = "#result.isEmpty()")
+    public List<InstallmentSummary> listInstallments(Long loanId) {
+        return installmentRepo.findSummariesByLoanId(loanId);
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.INSTALLMENTS, key = "#request.loanId"),
+            @CacheEvict(cacheNames = CacheConfig.QUOTES, key = PAYMENT_QUOTE_KEY)})
     public String payLoan(PayLoanRequest request) {
-        Loan loan = loanRepo.findById(request.getLoanId()).orElseThrow();
-        Result result = handleLoanPayment(request, loan);
-        loanRepo.save(loan);
+        PaymentResult result = applyPayment(request);
+        metrics.observe(LoanMetrics.PAYMENT_FLUSH, loanRepo::flush);
+        metrics.paymentApplied(result.paidCount(), result.amountToPay());
         return String.format("Paid %d installments. Remaining amount: %s. Loan fully paid: %b", result.paidCount(), result.amountToPay(), result.allPaid());
     }
 
-    private Result handleLoanPayment(PayLoanRequest request, Loan loan) {
-        List<LoanInstallment> installments = installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId());
+    // callers must hold a transaction so the loan row lock spans the whole payment, and record the payment metrics
+    // once it commits
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.INSTALLMENTS, key = "#request.loanId"),
+            @CacheEvict(cacheNames = CacheConfig.QUOTES, key = PAYMENT_QUOTE_KEY)})
+    public PaymentResult applyPayment(PayLoanRequest request) {
+        if (request.getLoanId() == null)
+            throw new LoanNotFoundException();
+        // sub-cent amounts are rejected rather than rounded, so a payment is never credited more than was paid
+        if (request.getAmount() == null || request.getAmount().signum() <= 0
+                || request.getAmount().stripTrailingZeros().scale() > InstallmentPricing.SCALE)
+            throw new IllegalArgumentException("Invalid payment amount");
+        Loan loan = loanRepo.findByIdForUpdate(request.getLoanId()).orElseThrow(LoanNotFoundException::new);
+        PaymentResult result = handleLoanPayment(request, loan);
+        loanRepo.save(loan);
+        if (result.paidCount() > 0) {
+            outbox.paymentApplied(loan, result.paidCount());
+            portfolios.paymentApplied(loan, result.paidAmount(), result.overduePaid());
+        }
+        return result;
+    }
 
-        BigDecimal amountToPay = request.getAmount();
-        int paidCount = 0;
+    private PaymentResult handleLoanPayment(PayLoanRequest request, Loan loan) {
         LocalDate now = LocalDate.now();
+        LocalDate maxDueDate = now.plusMonths(PAYABLE_MONTHS);
+        List<LoanInstallment> installments = metrics.observe(LoanMetrics.INSTALLMENT_FETCH,
+                () -> installmentRepo.findPayableInstallments(loan.getId(), maxDueDate));
+
+        List<LoanInstallment> paidInstallments = new ArrayList<>();
+        long amountToPay = metrics.observe(LoanMetrics.PAYMENT_CALCULATION,
+                () -> settleInstallments(installments, InstallmentPricing.toMinor(request.getAmount()), now, paidInstallments));
+        long paidPrincipal = 0;
+        long overduePaid = 0;
+        for (LoanInstallment inst : paidInstallments) {
+            long amount = InstallmentPricing.toMinor(inst.getAmount());
+            paidPrincipal += amount;
+            if (inst.isOverdue()) overduePaid += amount;
+        }
+        installmentRepo.saveAll(paidInstallments);
 
+        int paidCount = paidInstallments.size();
+        boolean allPaid = loan.getPaidInstallmentCount() + paidCount == loan.getNumberOfInstallments();
+        if (paidCount > 0) {
+            LoanInstallment next = null;
+            if (!allPaid) {
+                next = paidCount < installments.size()
+                        ? installments.get(paidCount)
+                        : installmentRepo.findFirstByLoanIdAndIsPaidFalseAndDueDateAfterOrderByDueDateAsc(loan.getId(), maxDueDate).orElseThrow();
+            }
+            loan.setPaidInstallmentCount(loan.getPaidInstallmentCount() + paidCount);
+            loan.setRemainingAmount(InstallmentPricing.toAmount(InstallmentPricing.toMinor(loan.getRemainingAmount()) - paidPrincipal));
+            loan.setNextDueDate(next == null ? null : next.getDueDate());
+            loan.setNextDueAmount(next == null ? null : next.getAmount());
+        }
+        if (allPaid) loan.setPaid(true);
+        return new PaymentResult(InstallmentPricing.toAmount(amountToPay), paidCount, allPaid,
+                InstallmentPricing.toAmount(paidPrincipal), InstallmentPricing.toAmount(overduePaid));
+    }
+
+    // same window and discount/penalty math as a payment, without touching any row
+    @Cacheable(cacheNames = CacheConfig.QUOTES, key = QUOTE_KEY)
+    public PaymentQuote quotePayment(Long loanId) {
+        Loan loan = loanRepo.findById(loanId).orElseThrow(LoanNotFoundException::new);
+        LocalDate now = LocalDate.now();
+        List<LoanInstallment> installments = installmentRepo.findPayableInstallments(loanId, now.plusMonths(PAYABLE_MONTHS));
+
+        List<InstallmentQuote> quotes = new ArrayList<>(installments.size());
+        long cumulative = 0;
         for (LoanInstallment inst : installments) {
-            if (inst.isPaid()) continue;
-            if (inst.getDueDate().isAfter(now.plusMonths(3))) continue;
-
-            BigDecimal finalAmount = inst.getAmount();
-            long days = java.time.temporal.ChronoUnit.DAYS.between(now, inst.getDueDate());
-            if (days > 0)
-                finalAmount = finalAmount.subtract(inst.getAmount().multiply(BigDecimal.valueOf(0.001 * days)));
-            else if (days < 0)
-                finalAmount = finalAmount.add(inst.getAmount().multiply(BigDecimal.valueOf(0.001 * -days)));
-
-            if (amountToPay.compareTo(finalAmount) >= 0) {
-                amountToPay = amountToPay.subtract(finalAmount);
+            long payable = InstallmentPricing.payableMinor(InstallmentPricing.toMinor(inst.getAmount()), inst.getDueDate(), now);
+            cumulative += payable;
+            quotes.add(new InstallmentQuote(inst.getId(), inst.getDueDate(), inst.getAmount(),
+                    InstallmentPricing.toAmount(payable), InstallmentPricing.toAmount(cumulative)));
+        }
+        boolean settlesLoan = loan.getPaidInstallmentCount() + installments.size() == loan.getNumberOfInstallments();
+        return new PaymentQuote(loanId, now, quotes, InstallmentPricing.toAmount(cumulative), settlesLoan);
+    }
+
+    static long settleInstallments(List<LoanInstallment> installments, long amount, LocalDate now,
+                                   List<LoanInstallment> paidInstallments) {
+        long amountToPay = amount;
+        for (LoanInstallment inst : installments) {
+            long finalAmount = InstallmentPricing.payableMinor(InstallmentPricing.toMinor(inst.getAmount()), inst.getDueDate(), now);
+            if (amountToPay >= finalAmount) {
+                amountToPay -= finalAmount;
                 inst.setPaid(true);
-                inst.setPaidAmount(finalAmount);
+                inst.setPaidAmount(InstallmentPricing.toAmount(finalAmount));
                 inst.setPaymentDate(now);
-                installmentRepo.save(inst);
-                paidCount++;
+                paidInstallments.add(inst);
             } else {
                 break;
             }
         }
+        return amountToPay;
+    }
 
-        boolean allPaid = installments.stream().allMatch(LoanInstallment::isPaid);
-        if (allPaid) loan.setPaid(true);
-        return new Result(amountToPay, paidCount, allPaid);
+    // paidAmount and overduePaid are in installment amounts, the units of the loan and delinquency balances
+    public record PaymentResult(BigDecimal amountToPay, int paidCount, boolean allPaid, BigDecimal paidAmount, BigDecimal overduePaid) {
     }
 
-    private record Result(BigDecimal amountToPay, int paidCount, boolean allPaid) {
+    private record CreditReservation(Customer customer, InstallmentSchedule schedule) {
     }
 }
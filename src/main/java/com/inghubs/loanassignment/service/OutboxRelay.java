@@ -0,0 +1,66 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.entity.OutboxEvent;
+import com.inghubs.loanassignment.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "loan.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private final OutboxEventRepository outboxRepo;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanMetrics metrics;
+    private final int batchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo, OutboxSink sink, TransactionTemplate transactionTemplate, LoanMetrics metrics,
+                       @Value("${loan.outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxRepo = outboxRepo;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${loan.outbox.relay.interval:1s}")
+    public void relayPendingEvents() {
+        try {
+            metrics.observe(LoanMetrics.OUTBOX_RELAY, this::relay);
+        } catch (RuntimeException e) {
+            // the failed batch stays in the outbox and is retried on the next run
+            log.warn("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    public int relay() {
+        int relayed = 0;
+        int published;
+        do {
+            published = publishBatch();
+            relayed += published;
+        } while (published == batchSize);
+        return relayed;
+    }
+
+    // delivery is at least once: a crash between publish and commit republishes the batch. Id order is sequence
+    // allocation order, not commit order, so batches are not ordered per aggregate across instances
+    int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxRepo.findPendingForPublish(Limit.of(batchSize));
+            if (events.isEmpty()) return 0;
+            sink.publish(events);
+            outboxRepo.deleteAllInBatch(events);
+            return events.size();
+        });
+        return published == null ? 0 : published;
+    }
+}
@@ -0,0 +1,79 @@
+package com.inghubs.loanassignment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.dto.CustomerEvent;
+import com.inghubs.loanassignment.dto.LoanCreatedEvent;
+import com.inghubs.loanassignment.dto.LoanPaymentEvent;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.OutboxEvent;
+import com.inghubs.loanassignment.repository.OutboxEventRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class OutboxService {
+    public static final String LOAN = "Loan";
+    public static final String CUSTOMER = "Customer";
+    public static final String LOAN_CREATED = "LoanCreated";
+    public static final String LOAN_PAYMENT_APPLIED = "LoanPaymentApplied";
+    public static final String CUSTOMER_CREATED = "CustomerCreated";
+    public static final String CUSTOMER_UPDATED = "CustomerUpdated";
+    public static final String CUSTOMER_DELETED = "CustomerDeleted";
+
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxRepo, ObjectMapper objectMapper) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    // events only exist if the state change they describe commits, so callers must hold the transaction
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void loansCreated(List<Loan> loans) {
+        List<OutboxEvent> events = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            events.add(event(LOAN, loan.getId(), LOAN_CREATED, new LoanCreatedEvent(loan.getId(), loan.getCustomer().getId(),
+                    loan.getLoanAmount(), loan.getNumberOfInstallments(), loan.getScheduleType(), loan.getCreateDate(),
+                    loan.getNextDueDate(), loan.getNextDueAmount())));
+        }
+        outboxRepo.saveAll(events);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void paymentApplied(Loan loan, int paidInstallments) {
+        outboxRepo.save(event(LOAN, loan.getId(), LOAN_PAYMENT_APPLIED, new LoanPaymentEvent(loan.getId(), loan.getCustomer().getId(),
+                paidInstallments, loan.getRemainingAmount(), loan.isPaid(), loan.getNextDueDate(), loan.getNextDueAmount())));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void customerChanged(String eventType, Customer customer) {
+        outboxRepo.save(event(CUSTOMER, customer.getId(), eventType, new CustomerEvent(customer.getId(), customer.getName(),
+                customer.getSurname(), customer.getCreditLimit(), customer.getUsedCreditLimit())));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void customerDeleted(Long customerId) {
+        outboxRepo.save(event(CUSTOMER, customerId, CUSTOMER_DELETED, new CustomerEvent(customerId, null, null, null, null)));
+    }
+
+    private OutboxEvent event(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setCreatedAt(Instant.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+        return event;
+    }
+}
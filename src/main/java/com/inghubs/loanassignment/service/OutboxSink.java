@@ -0,0 +1,10 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.entity.OutboxEvent;
+
+import java.util.List;
+
+// Receives relayed events in id order; a batch is deleted from the outbox only after publish returns.
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events);
+}
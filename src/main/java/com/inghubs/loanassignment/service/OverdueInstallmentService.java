@@ -0,0 +1,104 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.dto.OverdueInstallment;
+import com.inghubs.loanassignment.entity.CustomerDelinquency;
+import com.inghubs.loanassignment.repository.CustomerDelinquencyRepository;
+import com.inghubs.loanassignment.repository.OverdueInstallmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnProperty(name = "loan.overdue.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueInstallmentService {
+    private final OverdueInstallmentRepository overdueRepo;
+    private final CustomerDelinquencyRepository delinquencyRepo;
+    private final CustomerPortfolioService portfolios;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanMetrics metrics;
+    private final int chunkSize;
+
+    public OverdueInstallmentService(OverdueInstallmentRepository overdueRepo, CustomerDelinquencyRepository delinquencyRepo,
+                                     CustomerPortfolioService portfolios, TransactionTemplate transactionTemplate, LoanMetrics metrics,
+                                     @Value("${loan.overdue.chunk-size:500}") int chunkSize) {
+        this.overdueRepo = overdueRepo;
+        this.delinquencyRepo = delinquencyRepo;
+        this.portfolios = portfolios;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${loan.overdue.cron:0 15 1 * * *}")
+    public void processOverdueInstallments() {
+        metrics.observe(LoanMetrics.OVERDUE_SCAN, () -> scan(LocalDate.now()));
+    }
+
+    public ScanResult scan(LocalDate today) {
+        // truncated so the stored value compares equal to the one used for the stale counter reset
+        Instant evaluatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Map<Long, CustomerDelinquency> delinquencies = new HashMap<>();
+        int processed = 0;
+        OverdueInstallment cursor = null;
+        List<OverdueInstallment> chunk;
+        do {
+            chunk = overdueRepo.findOverdueAfter(today, cursor, chunkSize);
+            if (chunk.isEmpty()) break;
+            for (OverdueInstallment inst : chunk) {
+                long amount = InstallmentPricing.toMinor(inst.getAmount());
+                inst.setAccruedPenalty(InstallmentPricing.toAmount(InstallmentPricing.payableMinor(amount, inst.getDueDate(), today) - amount));
+                accumulate(delinquencies.computeIfAbsent(inst.getCustomerId(), OverdueInstallmentService::newDelinquency), inst);
+            }
+            List<OverdueInstallment> marked = chunk;
+            transactionTemplate.executeWithoutResult(status -> overdueRepo.markOverdue(marked));
+            processed += chunk.size();
+            cursor = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == chunkSize);
+
+        transactionTemplate.executeWithoutResult(status -> saveDelinquencies(delinquencies, evaluatedAt));
+        return new ScanResult(processed, delinquencies.size());
+    }
+
+    private void saveDelinquencies(Map<Long, CustomerDelinquency> delinquencies, Instant evaluatedAt) {
+        Map<Long, CustomerDelinquency> existing = delinquencyRepo.findAllById(delinquencies.keySet()).stream()
+                .collect(Collectors.toMap(CustomerDelinquency::getCustomerId, Function.identity()));
+        for (CustomerDelinquency delinquency : delinquencies.values()) {
+            CustomerDelinquency target = existing.getOrDefault(delinquency.getCustomerId(), delinquency);
+            target.setOverdueInstallments(delinquency.getOverdueInstallments());
+            target.setOverdueAmount(delinquency.getOverdueAmount());
+            target.setAccruedPenalty(delinquency.getAccruedPenalty());
+            target.setEvaluatedAt(evaluatedAt);
+            delinquencyRepo.save(target);
+        }
+        // customers without overdue installments in this run have caught up
+        delinquencyRepo.resetNotEvaluatedSince(evaluatedAt);
+        portfolios.overdueEvaluated(evaluatedAt);
+    }
+
+    private static CustomerDelinquency newDelinquency(Long customerId) {
+        CustomerDelinquency delinquency = new CustomerDelinquency();
+        delinquency.setCustomerId(customerId);
+        return delinquency;
+    }
+
+    private static void accumulate(CustomerDelinquency delinquency, OverdueInstallment inst) {
+        delinquency.setOverdueInstallments(delinquency.getOverdueInstallments() + 1);
+        delinquency.setOverdueAmount(delinquency.getOverdueAmount().add(inst.getAmount()));
+        delinquency.setAccruedPenalty(delinquency.getAccruedPenalty().add(inst.getAccruedPenalty()));
+    }
+
+    public record ScanResult(int overdueInstallments, int delinquentCustomers) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.inghubs.loanassignment.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.dto.PaymentOutcome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class PaymentIngestionService {
+    private final LoanService loanService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final LoanMetrics metrics;
+    private final int chunkSize;
+
+    public PaymentIngestionService(LoanService loanService, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                   LoanMetrics metrics, @Value("${loan.payments.ingestion.chunk-size:500}") int chunkSize) {
+        this.loanService = loanService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.chunkSize = chunkSize;
+    }
+
+    public void ingest(InputStream in, OutputStream out, long resumeFrom) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+
+        List<PaymentRecord> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber <= resumeFrom || line.isBlank()) continue;
+            chunk.add(parse(lineNumber, line));
+            if (chunk.size() >= chunkSize) {
+                writeChunk(generator, lineNumber, applyChunk(chunk));
+                chunk.clear();
+            }
+        }
+        writeChunk(generator, Math.max(lineNumber, resumeFrom), applyChunk(chunk));
+    }
+
+    private PaymentRecord parse(long line, String json) {
+        try {
+            PayLoanRequest request = objectMapper.readValue(json, PayLoanRequest.class);
+            if (request != null) return new PaymentRecord(line, request, null);
+        } catch (JsonProcessingException ignored) {
+        }
+        return new PaymentRecord(line, null, "Malformed payment record");
+    }
+
+    private List<PaymentOutcome> applyChunk(List<PaymentRecord> chunk) {
+        if (chunk.isEmpty()) return List.of();
+        // payments are metered only once the chunk commits, so a chunk replayed record by record counts them once
+        List<LoanService.PaymentResult> applied = new ArrayList<>();
+        try {
+            List<PaymentOutcome> outcomes = transactionTemplate.execute(status -> chunk.stream().map(record -> apply(record, applied)).toList());
+            applied.forEach(result -> metrics.paymentApplied(result.paidCount(), result.amountToPay()));
+            return outcomes;
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                PaymentRecord record = chunk.get(0);
+                return List.of(PaymentOutcome.rejected(record.line(), record.loanId(), e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+            List<PaymentOutcome> outcomes = new ArrayList<>(chunk.size());
+            for (PaymentRecord record : chunk) {
+                outcomes.addAll(applyChunk(List.of(record)));
+            }
+            return outcomes;
+        }
+    }
+
+    private PaymentOutcome apply(PaymentRecord record, List<LoanService.PaymentResult> applied) {
+        if (record.error() != null)
+            return PaymentOutcome.rejected(record.line(), null, record.error());
+        try {
+            LoanService.PaymentResult result = loanService.applyPayment(record.request());
+            applied.add(result);
+            return PaymentOutcome.applied(record.line(), record.loanId(), result.paidCount(), result.amountToPay(), result.allPaid());
+        } catch (IllegalArgumentException | LoanNotFoundException e) {
+            // both are raised before the payment writes anything, so the rest of the chunk can still commit
+            return PaymentOutcome.rejected(record.line(), record.loanId(), e.getMessage());
+        }
+    }
+
+    private void writeChunk(JsonGenerator generator, long checkpoint, List<PaymentOutcome> outcomes) throws IOException {
+        for (PaymentOutcome outcome : outcomes) {
+            generator.writeObject(outcome);
+            generator.writeRaw('\n');
+        }
+        generator.writeStartObject();
+        generator.writeNumberField("checkpoint", checkpoint);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private record PaymentRecord(long line, PayLoanRequest request, String error) {
+        Long loanId() {
+            return request == null ? null : request.getLoanId();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.inghubs.loanassignment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inghubs.loanassignment.entity.ScheduleType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+
+final class ScheduleEngine {
+    private static final Map<ScheduleType, ScheduleStrategy> STRATEGIES = new EnumMap<>(Map.of(
+            ScheduleType.FLAT, new FlatScheduleStrategy(),
+            ScheduleType.ANNUITY, new AnnuityScheduleStrategy(),
+            ScheduleType.DECLINING_BALANCE, new DecliningBalanceScheduleStrategy()));
+
+    // every loan created in the same month with the same term shares one array of due dates
+    private static final Cache<DueDateKey, LocalDate[]> DUE_DATES = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
+    private ScheduleEngine() {
+    }
+
+    static InstallmentSchedule generate(ScheduleType type, long principalMinor, long rateMicros, int installments, LocalDate today) {
+        long[] amounts = strategy(type).amounts(principalMinor, rateMicros, installments);
+        return InstallmentSchedule.of(amounts, dueDates(YearMonth.from(today), installments));
+    }
+
+    static ScheduleStrategy strategy(ScheduleType type) {
+        return STRATEGIES.get(type == null ? ScheduleType.FLAT : type);
+    }
+
+    // installments fall on the first day of each month, starting with the month after the loan is created
+    static LocalDate[] dueDates(YearMonth createMonth, int installments) {
+        return DUE_DATES.get(new DueDateKey(createMonth, installments), key -> {
+            LocalDate first = createMonth.plusMonths(1).atDay(1);
+            LocalDate[] dates = new LocalDate[installments];
+            for (int i = 0; i < installments; i++) {
+                dates[i] = first.plusMonths(i);
+            }
+            return dates;
+        });
+    }
+
+    private record DueDateKey(YearMonth createMonth, int installments) {
+    }
+}
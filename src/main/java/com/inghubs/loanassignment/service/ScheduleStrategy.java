@@ -0,0 +1,6 @@
+package com.inghubs.loanassignment.service;
+
+// Splits a loan into per-installment amounts in minor units; due dates are shared by all strategies.
+interface ScheduleStrategy {
+    long[] amounts(long principalMinor, long rateMicros, int installments);
+}
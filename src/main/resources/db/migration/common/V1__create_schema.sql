@@ -0,0 +1,57 @@
+-- Tables are created only when missing so databases previously managed by ddl-auto=update can be adopted.
+-- Money columns are NUMERIC(19,2): two minor-unit digits, matching InstallmentPricing.SCALE.
+
+CREATE SEQUENCE IF NOT EXISTS loan_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS loan_installment_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS customer (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name              VARCHAR(255),
+    surname           VARCHAR(255),
+    credit_limit      NUMERIC(19, 2),
+    used_credit_limit NUMERIC(19, 2) DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS loan (
+    id                     BIGINT PRIMARY KEY,
+    customer_id            BIGINT REFERENCES customer (id),
+    loan_amount            NUMERIC(19, 2),
+    number_of_installments INTEGER,
+    create_date            DATE,
+    is_paid                BOOLEAN DEFAULT FALSE NOT NULL,
+    remaining_amount       NUMERIC(19, 2),
+    paid_installment_count INTEGER DEFAULT 0 NOT NULL,
+    next_due_date          DATE,
+    next_due_amount        NUMERIC(19, 2),
+    version                BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS loan_installment (
+    id              BIGINT PRIMARY KEY,
+    loan_id         BIGINT REFERENCES loan (id),
+    amount          NUMERIC(19, 2),
+    paid_amount     NUMERIC(19, 2) DEFAULT 0,
+    due_date        DATE,
+    payment_date    DATE,
+    is_paid         BOOLEAN DEFAULT FALSE NOT NULL,
+    overdue         BOOLEAN DEFAULT FALSE NOT NULL,
+    accrued_penalty NUMERIC(19, 2) DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    version         BIGINT,
+    operation       VARCHAR(255),
+    request_hash    VARCHAR(255),
+    response_body   TEXT,
+    created_at      TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS customer_delinquency (
+    customer_id          BIGINT PRIMARY KEY REFERENCES customer (id),
+    version              BIGINT,
+    overdue_installments INTEGER DEFAULT 0 NOT NULL,
+    overdue_amount       NUMERIC(19, 2) DEFAULT 0,
+    accrued_penalty      NUMERIC(19, 2) DEFAULT 0,
+    evaluated_at         TIMESTAMP(6) WITH TIME ZONE
+);
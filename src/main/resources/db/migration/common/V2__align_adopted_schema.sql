@@ -0,0 +1,33 @@
+-- No-ops on a fresh schema; brings one created by ddl-auto=update in line with V1.
+
+-- the outstanding balance aggregates postdate the original schema, so they are added before their types are aligned
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS remaining_amount NUMERIC(19, 2);
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS paid_installment_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS next_due_date DATE;
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS next_due_amount NUMERIC(19, 2);
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE loan_installment ADD COLUMN IF NOT EXISTS overdue BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE loan_installment ADD COLUMN IF NOT EXISTS accrued_penalty NUMERIC(19, 2) DEFAULT 0;
+
+ALTER TABLE customer ALTER COLUMN credit_limit SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE customer ALTER COLUMN used_credit_limit SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE loan ALTER COLUMN loan_amount SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE loan ALTER COLUMN remaining_amount SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE loan ALTER COLUMN next_due_amount SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE loan_installment ALTER COLUMN amount SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE loan_installment ALTER COLUMN paid_amount SET DATA TYPE NUMERIC(19, 2);
+ALTER TABLE loan_installment ALTER COLUMN accrued_penalty SET DATA TYPE NUMERIC(19, 2);
+
+-- loans that predate the aggregates get them from their schedules, so payments and quotes never read NULLs
+UPDATE loan l SET
+    paid_installment_count = (SELECT COUNT(*) FROM loan_installment i WHERE i.loan_id = l.id AND i.is_paid = TRUE),
+    remaining_amount = COALESCE((SELECT SUM(i.amount) FROM loan_installment i WHERE i.loan_id = l.id AND i.is_paid = FALSE), 0),
+    next_due_date = (SELECT MIN(i.due_date) FROM loan_installment i WHERE i.loan_id = l.id AND i.is_paid = FALSE)
+WHERE l.remaining_amount IS NULL OR l.paid_installment_count IS NULL;
+UPDATE loan l SET
+    next_due_amount = (SELECT MIN(i.amount) FROM loan_installment i
+                       WHERE i.loan_id = l.id AND i.is_paid = FALSE AND i.due_date = l.next_due_date)
+WHERE l.next_due_amount IS NULL AND l.next_due_date IS NOT NULL;
+
+ALTER TABLE loan ALTER COLUMN paid_installment_count SET DEFAULT 0;
+ALTER TABLE loan ALTER COLUMN paid_installment_count SET NOT NULL;
@@ -0,0 +1,11 @@
+-- loan.customer_id: findByCustomerId, findPage and streamLoans keyset on id within a customer
+CREATE INDEX IF NOT EXISTS idx_loan_customer_id ON loan (customer_id, id);
+-- filtered portfolio listings
+CREATE INDEX IF NOT EXISTS idx_loan_customer_paid_created ON loan (customer_id, is_paid, create_date);
+
+-- loan_installment.loan_id: findByLoanIdOrderByDueDateAsc, findPayableInstallments,
+-- findFirstByLoanIdAndIsPaidFalseAndDueDateAfterOrderByDueDateAsc and streamInstallments
+CREATE INDEX IF NOT EXISTS idx_installment_loan_due ON loan_installment (loan_id, due_date);
+
+-- stale counter reset after each overdue scan
+CREATE INDEX IF NOT EXISTS idx_delinquency_evaluated ON customer_delinquency (evaluated_at);
@@ -0,0 +1,2 @@
+-- amortization strategy the installment schedule was generated with; existing loans are all flat
+ALTER TABLE loan ADD COLUMN IF NOT EXISTS schedule_type VARCHAR(32) DEFAULT 'FLAT' NOT NULL;
@@ -0,0 +1,11 @@
+-- domain events written in the same transaction as the state change and deleted once the relay published them
+CREATE SEQUENCE IF NOT EXISTS outbox_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id             BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(255),
+    aggregate_id   BIGINT,
+    event_type     VARCHAR(255),
+    payload        TEXT,
+    created_at     TIMESTAMP(6) WITH TIME ZONE
+);
@@ -0,0 +1,24 @@
+-- one row per customer for GET /api/customers/{id}/portfolio, kept current by loan, payment and overdue writes
+CREATE TABLE IF NOT EXISTS customer_portfolio (
+    customer_id       BIGINT PRIMARY KEY,
+    version           BIGINT,
+    credit_limit      NUMERIC(19, 2),
+    used_credit_limit NUMERIC(19, 2),
+    active_loans      INTEGER NOT NULL,
+    total_outstanding NUMERIC(19, 2),
+    next_due_date     DATE,
+    overdue_amount    NUMERIC(19, 2),
+    updated_at        TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- backfill customers that existed before the read model
+INSERT INTO customer_portfolio (customer_id, version, credit_limit, used_credit_limit, active_loans, total_outstanding,
+                                next_due_date, overdue_amount, updated_at)
+SELECT c.id, 0, c.credit_limit, c.used_credit_limit,
+       (SELECT COUNT(*) FROM loan l WHERE l.customer_id = c.id AND l.is_paid = FALSE),
+       COALESCE((SELECT SUM(l.remaining_amount) FROM loan l WHERE l.customer_id = c.id AND l.is_paid = FALSE), 0),
+       (SELECT MIN(l.next_due_date) FROM loan l WHERE l.customer_id = c.id AND l.is_paid = FALSE),
+       COALESCE((SELECT d.overdue_amount FROM customer_delinquency d WHERE d.customer_id = c.id), 0),
+       CURRENT_TIMESTAMP
+FROM customer c
+WHERE NOT EXISTS (SELECT 1 FROM customer_portfolio p WHERE p.customer_id = c.id);
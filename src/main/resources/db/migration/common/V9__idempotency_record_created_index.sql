@@ -0,0 +1,2 @@
+-- expired idempotency record purge
+CREATE INDEX IF NOT EXISTS idx_idempotency_created ON idempotency_record (created_at);
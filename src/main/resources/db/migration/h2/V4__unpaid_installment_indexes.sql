@@ -0,0 +1,3 @@
+-- H2 has no partial indexes; the PostgreSQL variant restricts both to is_paid = false
+CREATE INDEX IF NOT EXISTS idx_installment_unpaid_due ON loan_installment (due_date, id);
+CREATE INDEX IF NOT EXISTS idx_installment_loan_unpaid_due ON loan_installment (loan_id, due_date);
@@ -0,0 +1,8 @@
+-- ids of an adopted schema came from identity columns; move the pooled sequences past them so the first
+-- allocated block (next value - 49 .. next value) cannot collide. Empty tables leave the sequences untouched.
+ALTER SEQUENCE loan_seq RESTART WITH (
+    SELECT GREATEST(s.base_value, (SELECT (MAX(id) / 50 + 2) * 50 FROM loan))
+    FROM information_schema.sequences s WHERE LOWER(s.sequence_name) = 'loan_seq');
+ALTER SEQUENCE loan_installment_seq RESTART WITH (
+    SELECT GREATEST(s.base_value, (SELECT (MAX(id) / 50 + 2) * 50 FROM loan_installment))
+    FROM information_schema.sequences s WHERE LOWER(s.sequence_name) = 'loan_installment_seq');
@@ -0,0 +1,4 @@
+-- overdue scan: keyset over unpaid installments only, so paid history never enters the index
+CREATE INDEX IF NOT EXISTS idx_installment_unpaid_due ON loan_installment (due_date, id) WHERE is_paid = false;
+-- payment window lookups read only the unpaid part of a schedule
+CREATE INDEX IF NOT EXISTS idx_installment_loan_unpaid_due ON loan_installment (loan_id, due_date) WHERE is_paid = false;
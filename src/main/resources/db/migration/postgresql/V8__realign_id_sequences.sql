@@ -0,0 +1,6 @@
+-- ids of an adopted schema came from identity columns; move the pooled sequences past them so the first
+-- allocated block (next value - 49 .. next value) cannot collide. Empty tables leave the sequences untouched.
+SELECT setval('loan_seq', GREATEST(s.last_value, ((SELECT MAX(id) FROM loan) / 50 + 1) * 50))
+FROM loan_seq s WHERE EXISTS (SELECT 1 FROM loan);
+SELECT setval('loan_installment_seq', GREATEST(s.last_value, ((SELECT MAX(id) FROM loan_installment) / 50 + 1) * 50))
+FROM loan_installment_seq s WHERE EXISTS (SELECT 1 FROM loan_installment);
@@ -0,0 +1,193 @@
+package com.inghubs.loanassignment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.CustomerRequest;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import com.inghubs.loanassignment.service.CustomerPortfolioService;
+import com.inghubs.loanassignment.service.CustomerService;
+import com.inghubs.loanassignment.service.LoanService;
+import com.inghubs.loanassignment.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class CacheConfigTest {
+
+    @Configuration
+    @Import({CacheConfig.class, MetricsTestConfig.class, CustomerService.class, LoanService.class})
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+    @MockitoBean
+    private LoanRepository loanRepository;
+    @MockitoBean
+    private LoanInstallmentRepository installmentRepository;
+    @MockitoBean
+    private OutboxService outboxService;
+    @MockitoBean
+    private CustomerPortfolioService portfolioService;
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getCustomerById_shouldBeServedFromCacheUntilUpdated() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.updateProfile(eq(1L), any(), any(), any())).thenReturn(1);
+
+        customerService.getCustomerById(1L);
+        customerService.getCustomerById(1L);
+        verify(customerRepository, times(1)).findById(1L);
+
+        customerService.updateCustomer(1L, new CustomerRequest(1L, "New", "Name", BigDecimal.TEN, BigDecimal.ZERO));
+        customerService.getCustomerById(1L);
+        verify(customerRepository, times(3)).findById(1L);
+
+        customerService.deleteCustomer(1L);
+        customerService.getCustomerById(1L);
+        verify(customerRepository, times(4)).findById(1L);
+    }
+
+    @Test
+    void getCustomerById_shouldNotCacheMissingCustomer() {
+        when(customerRepository.findById(2L)).thenReturn(Optional.empty());
+
+        customerService.getCustomerById(2L);
+        customerService.getCustomerById(2L);
+
+        verify(customerRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void createLoan_shouldEvictCustomer() {
+        Customer customer = new Customer();
+        customer.setId(3L);
+        when(customerRepository.findById(3L)).thenReturn(Optional.of(customer));
+        when(customerRepository.reserveCredit(any(), any())).thenReturn(1);
+        when(loanRepository.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+        when(installmentRepository.saveAllAndFlush(anyList())).thenAnswer(i -> i.getArgument(0));
+        customerService.getCustomerById(3L);
+
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(3L);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(6);
+        loanService.createLoan(request);
+        clearInvocations(customerRepository);
+
+        customerService.getCustomerById(3L);
+        verify(customerRepository).findById(3L);
+    }
+
+    @Test
+    void listInstallments_shouldBeServedFromCacheUntilPaid() {
+        Loan loan = new Loan();
+        loan.setId(5L);
+        loan.setNumberOfInstallments(6);
+        loan.setRemainingAmount(BigDecimal.valueOf(600));
+        when(installmentRepository.findSummariesByLoanId(5L)).thenReturn(List.of(new InstallmentSummary()));
+        when(loanRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(loan));
+
+        loanService.listInstallments(5L);
+        loanService.listInstallments(5L);
+        verify(installmentRepository, times(1)).findSummariesByLoanId(5L);
+
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(5L);
+        request.setAmount(BigDecimal.ONE);
+        loanService.payLoan(request);
+        loanService.listInstallments(5L);
+        verify(installmentRepository, times(2)).findSummariesByLoanId(5L);
+
+        CacheStats stats = nativeCache(CacheConfig.INSTALLMENTS).stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(2, stats.missCount());
+    }
+
+    @Test
+    void quotePayment_shouldBeServedFromCacheUntilPaid() {
+        Loan loan = new Loan();
+        loan.setId(6L);
+        loan.setNumberOfInstallments(6);
+        loan.setRemainingAmount(BigDecimal.valueOf(600));
+        when(loanRepository.findById(6L)).thenReturn(Optional.of(loan));
+        when(loanRepository.findByIdForUpdate(6L)).thenReturn(Optional.of(loan));
+
+        loanService.quotePayment(6L);
+        loanService.quotePayment(6L);
+        verify(installmentRepository, times(1)).findPayableInstallments(eq(6L), any());
+
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(6L);
+        request.setAmount(BigDecimal.ONE);
+        loanService.payLoan(request);
+        loanService.quotePayment(6L);
+        // one read for the payment itself and one for the fresh quote
+        verify(installmentRepository, times(3)).findPayableInstallments(eq(6L), any());
+
+        CacheStats stats = nativeCache(CacheConfig.QUOTES).stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertTrue(nativeCache(CacheConfig.QUOTES).policy().expireAfterWrite().isPresent());
+    }
+
+    @Test
+    void cacheManager_shouldBoundSizeAndRecordStats() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> customers = nativeCache(CacheConfig.CUSTOMERS);
+
+        assertTrue(customers.policy().eviction().isPresent());
+        assertTrue(customers.policy().expireAfterWrite().isPresent());
+        assertTrue(customers.policy().isRecordingStats());
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+        TransactionAwareCacheDecorator decorator = (TransactionAwareCacheDecorator) cacheManager.getCache(name);
+        return ((CaffeineCache) decorator.getTargetCache()).getNativeCache();
+    }
+}
@@ -0,0 +1,39 @@
+package com.inghubs.loanassignment.config;
+
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.dto.PaymentOutcome;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.security.JwtAuthConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.LoanRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_shouldCoverProjectionsAndManualSerialization() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(LoanSummary.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(PaymentOutcome.class.getMethod("getLoanId")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Loan.class.getMethod("getRemainingAmount")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onField(JwtAuthConverter.class.getDeclaredField("resourceId")).test(hints));
+    }
+
+    @Test
+    void registerHints_shouldIncludeVendorMigrations() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/common/V1__create_schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V4__unpaid_installment_indexes.sql").test(hints));
+    }
+}
@@ -1,8 +1,12 @@
 package com.inghubs.loanassignment.controller;
 
+import com.inghubs.loanassignment.service.IdempotencyConflictException;
+import com.inghubs.loanassignment.service.IdempotencyInProgressException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.HttpStatus.*;
@@ -35,4 +39,44 @@ public class ApiExceptionHandlerTest {
         assertEquals(BAD_GATEWAY, response.getStatusCode());
         assertEquals("Invalid input", response.getBody());
     }
+
+    @Test
+    void handleUnavailableException_shouldReturnServiceUnavailableStatus() {
+        CannotCreateTransactionException exception = new CannotCreateTransactionException("Could not open JPA EntityManager");
+
+        ResponseEntity<String> response = handler.handleUnavailableException(exception);
+
+        assertEquals(SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("Service busy, retry later", response.getBody());
+    }
+
+    @Test
+    void handleIdempotencyConflictException_shouldReturnUnprocessableEntityStatus() {
+        IdempotencyConflictException exception = new IdempotencyConflictException("Idempotency key was used with a different request");
+
+        ResponseEntity<String> response = handler.handleIdempotencyConflictException(exception);
+
+        assertEquals(UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals("Idempotency key was used with a different request", response.getBody());
+    }
+
+    @Test
+    void handleIdempotencyInProgressException_shouldReturnConflictStatus() {
+        IdempotencyInProgressException exception = new IdempotencyInProgressException("Request with this idempotency key is still in progress");
+
+        ResponseEntity<String> response = handler.handleIdempotencyInProgressException(exception);
+
+        assertEquals(CONFLICT, response.getStatusCode());
+        assertEquals("Request with this idempotency key is still in progress", response.getBody());
+    }
+
+    @Test
+    void handleConcurrentUpdateException_shouldReturnConflictStatus() {
+        OptimisticLockingFailureException exception = new OptimisticLockingFailureException("Row was updated by another transaction");
+
+        ResponseEntity<String> response = handler.handleConcurrentUpdateException(exception);
+
+        assertEquals(CONFLICT, response.getStatusCode());
+        assertEquals("Concurrent update, retry later", response.getBody());
+    }
 }
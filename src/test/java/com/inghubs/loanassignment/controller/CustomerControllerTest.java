@@ -1,16 +1,21 @@
 package com.inghubs.loanassignment.controller;
 
+import com.inghubs.loanassignment.dto.CustomerPage;
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
 import com.inghubs.loanassignment.dto.CustomerRequest;
+import com.inghubs.loanassignment.dto.CustomerSummary;
 import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.service.CustomerPortfolioService;
 import com.inghubs.loanassignment.service.CustomerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,12 +24,14 @@ import static org.mockito.Mockito.*;
 class CustomerControllerTest {
 
     private CustomerService customerService;
+    private CustomerPortfolioService portfolioService;
     private CustomerController customerController;
 
     @BeforeEach
     void setUp() {
         customerService = mock(CustomerService.class);
-        customerController = new CustomerController(customerService);
+        portfolioService = mock(CustomerPortfolioService.class);
+        customerController = new CustomerController(customerService, portfolioService);
     }
 
     @Test
@@ -44,15 +51,27 @@ class CustomerControllerTest {
 
     @Test
     @WithMockUser(roles = "client_admin")
-    void getAllCustomers_shouldReturnListOfCustomers() {
-        List<Customer> customers = Arrays.asList(new Customer(), new Customer());
-        when(customerService.getAllCustomers()).thenReturn(customers);
+    void getCustomers_shouldReturnPageOfCustomers() {
+        CustomerPage page = new CustomerPage(Arrays.asList(new CustomerSummary(), new CustomerSummary()), 2L);
+        when(customerService.getCustomers(null, 50)).thenReturn(page);
 
-        ResponseEntity<List<Customer>> response = customerController.getAllCustomers();
+        ResponseEntity<CustomerPage> response = customerController.getCustomers(null, 50);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size());
-        verify(customerService).getAllCustomers();
+        assertEquals(2, response.getBody().getItems().size());
+        verify(customerService).getCustomers(null, 50);
+    }
+
+    @Test
+    @WithMockUser(roles = "client_admin")
+    void exportCustomers_shouldStreamFromService() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = customerController.exportCustomers();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.getBody().writeTo(out);
+
+        assertEquals(200, response.getStatusCodeValue());
+        verify(customerService).exportCustomers(out);
     }
 
     @Test
@@ -80,6 +99,22 @@ class CustomerControllerTest {
         verify(customerService).getCustomerById(1L);
     }
 
+    @Test
+    @WithMockUser(roles = "client_admin")
+    void getPortfolio_shouldReturnReadModel() {
+        CustomerPortfolioSummary portfolio = new CustomerPortfolioSummary();
+        portfolio.setCustomerId(1L);
+        portfolio.setActiveLoans(2);
+
+        when(portfolioService.getPortfolio(1L)).thenReturn(portfolio);
+
+        ResponseEntity<CustomerPortfolioSummary> response = customerController.getPortfolio(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(portfolio, response.getBody());
+        verify(portfolioService).getPortfolio(1L);
+    }
+
     @Test
     @WithMockUser(roles = "client_admin")
     void updateCustomer_shouldReturnUpdatedCustomer() {
@@ -2,11 +2,19 @@ package com.inghubs.loanassignment.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanBatchItemResult;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanPage;
+import com.inghubs.loanassignment.dto.LoanSummary;
 import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.dto.PaymentQuote;
 import com.inghubs.loanassignment.entity.Loan;
-import com.inghubs.loanassignment.entity.LoanInstallment;
 
+import com.inghubs.loanassignment.service.IdempotencyService;
+import com.inghubs.loanassignment.service.LoanOriginationService;
 import com.inghubs.loanassignment.service.LoanService;
+import com.inghubs.loanassignment.service.PaymentIngestionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,15 +22,23 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class LoanControllerTest {
@@ -32,10 +48,23 @@ class LoanControllerTest {
     @Mock
     private LoanService loanService;
 
+    @Mock
+    private LoanOriginationService loanOriginationService;
+
+    @Mock
+    private PaymentIngestionService paymentIngestionService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @BeforeEach
     void setUp() {
         loanService = mock(LoanService.class);
-        loanController = new LoanController(loanService);
+        loanOriginationService = mock(LoanOriginationService.class);
+        paymentIngestionService = mock(PaymentIngestionService.class);
+        idempotencyService = mock(IdempotencyService.class);
+        when(idempotencyService.execute(any(), any(), any(), any(), any())).thenAnswer(i -> i.<Supplier<?>>getArgument(4).get());
+        loanController = new LoanController(loanService, loanOriginationService, paymentIngestionService, idempotencyService);
     }
 
     @Test
@@ -46,24 +75,40 @@ class LoanControllerTest {
 
         when(loanService.createLoan(any(CreateLoanRequest.class))).thenReturn(loan);
 
-        ResponseEntity<Loan> response = loanController.createLoan(request);
+        ResponseEntity<Loan> response = loanController.createLoan("key-1", request);
 
 
         assertNotNull(response);
+        verify(idempotencyService).execute(eq("key-1"), eq("createLoan"), eq(request), eq(Loan.class), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "client_admin")
+    void createLoans_shouldReturnPerItemResults() {
+        List<CreateLoanRequest> requests = List.of(new CreateLoanRequest(), new CreateLoanRequest());
+        List<LoanBatchItemResult> results = List.of(
+                LoanBatchItemResult.created(0, 1L, 10L),
+                LoanBatchItemResult.rejected(1, 1L, "Insufficient credit limit"));
+
+        when(loanOriginationService.createLoans(requests)).thenReturn(results);
+
+        ResponseEntity<List<LoanBatchItemResult>> response = loanController.createLoans(requests);
+
+        assertEquals(results, response.getBody());
     }
 
     @Test
     @WithMockUser(roles = "client_admin")
-    void listLoans_shouldReturnLoanList() throws Exception {
+    void listLoans_shouldReturnLoanPage() throws Exception {
         long customerId = 1L;
-        Loan loan = new Loan();
-        List<Loan> loans = Collections.singletonList(loan);
+        LoanFilter filter = new LoanFilter();
+        LoanPage page = new LoanPage(Collections.singletonList(new LoanSummary()), null);
 
-        when(loanService.listLoans(customerId)).thenReturn(loans);
+        when(loanService.listLoans(customerId, filter, null, 50)).thenReturn(page);
 
-        ResponseEntity<List<Loan>> loans1 = loanController.listLoans(customerId);
-        verify(loanService).listLoans(customerId);
-        assertEquals(loans, loans1.getBody());
+        ResponseEntity<LoanPage> response = loanController.listLoans(customerId, filter, null, 50);
+        verify(loanService).listLoans(customerId, filter, null, 50);
+        assertEquals(page, response.getBody());
 
     }
 
@@ -71,24 +116,48 @@ class LoanControllerTest {
     @WithMockUser(roles = "client_admin")
     void listInstallments_shouldReturnInstallmentList() throws Exception {
         long loanId = 1L;
-        LoanInstallment installment = new LoanInstallment();
-        List<LoanInstallment> installments = Collections.singletonList(installment);
+        InstallmentSummary installment = new InstallmentSummary();
+        List<InstallmentSummary> installments = Collections.singletonList(installment);
 
         when(loanService.listInstallments(loanId)).thenReturn(installments);
 
-        ResponseEntity<List<LoanInstallment>> loanInstallments = loanController.listInstallments(loanId);
+        ResponseEntity<List<InstallmentSummary>> loanInstallments = loanController.listInstallments(loanId);
         verify(loanService).listInstallments(loanId);
         assertEquals(installments, loanInstallments.getBody());
     }
 
+    @Test
+    @WithMockUser(roles = "client_admin")
+    void quotePayment_shouldReturnQuote() {
+        PaymentQuote quote = new PaymentQuote(1L, LocalDate.now(), Collections.emptyList(), BigDecimal.ZERO, false);
+        when(loanService.quotePayment(1L)).thenReturn(quote);
+
+        ResponseEntity<PaymentQuote> response = loanController.quotePayment(1L);
+
+        verify(loanService).quotePayment(1L);
+        assertEquals(quote, response.getBody());
+    }
+
     @Test
     @WithMockUser(roles = "client_admin")
     void payLoan_shouldReturnConfirmationMessage() throws Exception {
         PayLoanRequest request = new PayLoanRequest();
         when(loanService.payLoan(any(PayLoanRequest.class))).thenReturn("Payment successful");
 
-        ResponseEntity<String> s = loanController.payLoan(request);
+        ResponseEntity<String> s = loanController.payLoan(null, request);
 
         assertEquals("Payment successful", s.getBody());
     }
+
+    @Test
+    @WithMockUser(roles = "client_admin")
+    void ingestPayments_shouldStreamOutcomesAsNdjson() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        loanController.ingestPayments(42, body, response);
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        verify(paymentIngestionService).ingest(body, response.getOutputStream(), 42);
+    }
 }
@@ -0,0 +1,45 @@
+package com.inghubs.loanassignment.controller;
+
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.repository.LoanReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveLoanControllerTest {
+
+    private LoanReadRepository loanReadRepository;
+    private ReactiveLoanController controller;
+
+    @BeforeEach
+    void setUp() {
+        loanReadRepository = mock(LoanReadRepository.class);
+        controller = new ReactiveLoanController(loanReadRepository);
+    }
+
+    @Test
+    void streamLoans_shouldStreamCustomerPortfolio() {
+        LoanFilter filter = new LoanFilter(false, null, null, null);
+        LoanSummary loan = new LoanSummary();
+        when(loanReadRepository.streamLoans(1L, filter)).thenReturn(Flux.just(loan, loan));
+
+        StepVerifier.create(controller.streamLoans(1L, filter))
+                .expectNext(loan, loan)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamInstallments_shouldStreamSchedule() {
+        InstallmentSummary installment = new InstallmentSummary();
+        when(loanReadRepository.streamInstallments(5L)).thenReturn(Flux.just(installment));
+
+        StepVerifier.create(controller.streamInstallments(5L))
+                .expectNext(installment)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,107 @@
+package com.inghubs.loanassignment.repository;
+
+import com.inghubs.loanassignment.config.DataSourceConfig;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(R2dbcAutoConfiguration.class)
+@Import({DataSourceConfig.class, LoanReadRepository.class})
+class LoanReadRepositoryTest {
+
+    @Autowired
+    private LoanReadRepository loanReadRepository;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private LoanRepository loanRepo;
+    @Autowired
+    private LoanInstallmentRepository installmentRepo;
+
+    private Customer customer;
+    private List<Loan> loans;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setName("Reactive");
+        customer.setSurname("Reader");
+        customer.setCreditLimit(BigDecimal.valueOf(100_000));
+        customer = customerRepo.save(customer);
+
+        loans = new ArrayList<>();
+        for (int installments : new int[]{6, 12, 6}) {
+            Loan loan = new Loan();
+            loan.setCustomer(customer);
+            loan.setLoanAmount(BigDecimal.valueOf(1200));
+            loan.setRemainingAmount(BigDecimal.valueOf(1200));
+            loan.setNumberOfInstallments(installments);
+            loan.setCreateDate(LocalDate.now());
+            loans.add(loanRepo.save(loan));
+        }
+        List<LoanInstallment> schedule = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            LoanInstallment inst = new LoanInstallment();
+            inst.setLoan(loans.get(0));
+            inst.setAmount(BigDecimal.valueOf(200));
+            inst.setDueDate(LocalDate.now().plusMonths(6 - i));
+            schedule.add(inst);
+        }
+        installmentRepo.saveAll(schedule);
+    }
+
+    @Test
+    void streamLoans_shouldEmitCustomerPortfolioInIdOrder() {
+        StepVerifier.create(loanReadRepository.streamLoans(customer.getId(), new LoanFilter()), 1)
+                .expectNextMatches(loan -> loan.getId().equals(loans.get(0).getId()))
+                .thenRequest(2)
+                .expectNextMatches(loan -> loan.getId().equals(loans.get(1).getId()))
+                .expectNextMatches(loan -> loan.getId().equals(loans.get(2).getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamLoans_shouldApplyFilter() {
+        List<LoanSummary> sixMonth = loanReadRepository.streamLoans(customer.getId(), new LoanFilter(false, 6, LocalDate.now(), null))
+                .collectList().block();
+
+        assertEquals(2, sixMonth.size());
+        assertEquals(customer.getId(), sixMonth.get(0).getCustomerId());
+        assertEquals(0, BigDecimal.valueOf(1200).compareTo(sixMonth.get(0).getRemainingAmount()));
+        assertFalse(sixMonth.get(0).isPaid());
+    }
+
+    @Test
+    void streamInstallments_shouldEmitScheduleByDueDate() {
+        StepVerifier.create(loanReadRepository.streamInstallments(loans.get(0).getId()))
+                .expectNextMatches(inst -> inst.getDueDate().equals(LocalDate.now().plusMonths(1)))
+                .expectNextCount(5)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,98 @@
+package com.inghubs.loanassignment.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_shouldCreateQueryIndexesAndMoneyPrecision() {
+        assertEquals("9", flyway.info().current().getVersion().getVersion());
+
+        List<String> indexes = jdbcTemplate.queryForList("select lower(index_name) from information_schema.indexes", String.class);
+        assertTrue(indexes.containsAll(List.of("idx_loan_customer_id", "idx_loan_customer_paid_created", "idx_installment_loan_due",
+                "idx_installment_unpaid_due", "idx_installment_loan_unpaid_due", "idx_delinquency_evaluated")));
+
+        Map<String, Object> amount = jdbcTemplate.queryForMap("select numeric_precision, numeric_scale from information_schema.columns "
+                + "where lower(table_name) = 'loan_installment' and lower(column_name) = 'amount'");
+        assertEquals(19, ((Number) amount.get("NUMERIC_PRECISION")).intValue());
+        assertEquals(2, ((Number) amount.get("NUMERIC_SCALE")).intValue());
+    }
+
+    @Test
+    void migrations_shouldAdoptSchemaCreatedByHibernate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:adopted;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate adopted = new JdbcTemplate(dataSource);
+        // shape left behind by ddl-auto=update on the original entities: identity ids, no aggregates or versioning
+        adopted.execute("create table customer (id bigint generated by default as identity primary key, credit_limit numeric(38,2), "
+                + "name varchar(255), surname varchar(255), used_credit_limit numeric(38,2))");
+        adopted.execute("create table loan (id bigint generated by default as identity primary key, create_date date, "
+                + "is_paid boolean not null, loan_amount numeric(38,2), number_of_installments integer, customer_id bigint references customer)");
+        adopted.execute("create table loan_installment (id bigint generated by default as identity primary key, amount numeric(38,2), "
+                + "due_date date, is_paid boolean not null, paid_amount numeric(38,2), payment_date date, loan_id bigint references loan)");
+        adopted.execute("insert into customer (name, surname, credit_limit, used_credit_limit) values ('Jane', 'Doe', 1000, 1200)");
+        adopted.execute("insert into loan (customer_id, loan_amount, number_of_installments, create_date, is_paid) "
+                + "values (1, 1200, 6, date '2024-01-15', false)");
+        for (int month = 2; month <= 7; month++) {
+            adopted.update("insert into loan_installment (loan_id, amount, paid_amount, due_date, is_paid) values (1, 200, ?, ?, ?)",
+                    month <= 3 ? 200 : 0, java.sql.Date.valueOf(LocalDate.of(2024, month, 1)), month <= 3);
+        }
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertEquals(0L, adopted.queryForObject("select version from loan where id = 1", Long.class));
+        assertEquals("FLAT", adopted.queryForObject("select schedule_type from loan where id = 1", String.class));
+        assertEquals(19, adopted.queryForObject("select numeric_precision from information_schema.columns "
+                + "where lower(table_name) = 'loan' and lower(column_name) = 'loan_amount'", Integer.class));
+        assertEquals(1, adopted.queryForObject("select count(*) from information_schema.tables "
+                + "where lower(table_name) = 'customer_delinquency'", Integer.class));
+        assertEquals(1, adopted.queryForObject("select count(*) from information_schema.tables "
+                + "where lower(table_name) = 'outbox_event'", Integer.class));
+        // the first pooled block handed to Hibernate (next value - 49 .. next value) starts past the identity ids
+        Long loanBlock = adopted.queryForObject("select nextval('loan_seq')", Long.class);
+        assertTrue(loanBlock - 49 > adopted.queryForObject("select max(id) from loan", Long.class));
+        Long installmentBlock = adopted.queryForObject("select nextval('loan_installment_seq')", Long.class);
+        assertTrue(installmentBlock - 49 > adopted.queryForObject("select max(id) from loan_installment", Long.class));
+        // pre-existing loans get their aggregates from the schedule, two of six installments being paid
+        Map<String, Object> loan = adopted.queryForMap("select paid_installment_count, remaining_amount, next_due_date, next_due_amount "
+                + "from loan where id = 1");
+        assertEquals(2, ((Number) loan.get("PAID_INSTALLMENT_COUNT")).intValue());
+        assertEquals(0, new BigDecimal("800.00").compareTo((BigDecimal) loan.get("REMAINING_AMOUNT")));
+        assertEquals(LocalDate.of(2024, 4, 1), ((java.sql.Date) loan.get("NEXT_DUE_DATE")).toLocalDate());
+        assertEquals(0, new BigDecimal("200.00").compareTo((BigDecimal) loan.get("NEXT_DUE_AMOUNT")));
+        assertEquals("NO", adopted.queryForObject("select is_nullable from information_schema.columns "
+                + "where lower(table_name) = 'loan' and lower(column_name) = 'paid_installment_count'", String.class));
+        // existing customers are backfilled into the portfolio read model
+        assertEquals(1, adopted.queryForObject("select active_loans from customer_portfolio where customer_id = 1", Integer.class));
+        assertEquals(0, new BigDecimal("800.00").compareTo(adopted.queryForObject(
+                "select total_outstanding from customer_portfolio where customer_id = 1", BigDecimal.class)));
+        adopted.execute("drop all objects");
+    }
+}
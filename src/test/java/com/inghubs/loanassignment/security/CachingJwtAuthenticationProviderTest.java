@@ -0,0 +1,111 @@
+package com.inghubs.loanassignment.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingJwtAuthenticationProviderTest {
+    private static final Instant NOW = Instant.parse("2026-01-15T10:00:00Z");
+
+    private AuthenticationProvider delegate;
+    private AtomicLong nanos;
+    private CachingJwtAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(AuthenticationProvider.class);
+        nanos = new AtomicLong();
+        provider = new CachingJwtAuthenticationProvider(delegate, 100, Duration.ofMinutes(5), nanos::get, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void authenticate_shouldVerifyReusedTokenOnce() {
+        when(delegate.authenticate(any())).thenAnswer(i -> authenticated(NOW.plusSeconds(300)));
+
+        Authentication first = provider.authenticate(bearer("token-a", "first"));
+        Authentication second = provider.authenticate(bearer("token-a", "second"));
+
+        verify(delegate, times(1)).authenticate(any());
+        assertTrue(second.isAuthenticated());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertEquals("second", second.getDetails());
+    }
+
+    @Test
+    void authenticate_shouldVerifyAgainOnceTokenExpires() {
+        when(delegate.authenticate(any())).thenAnswer(i -> authenticated(NOW.plusSeconds(60)));
+
+        provider.authenticate(bearer("token-b", null));
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        provider.authenticate(bearer("token-b", null));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_shouldMeasureRemainingLifetimeOnTheTicker() {
+        when(delegate.authenticate(any())).thenAnswer(i -> authenticated(NOW.plusSeconds(60)));
+        nanos.addAndGet(Duration.ofSeconds(50).toNanos());
+
+        provider.authenticate(bearer("token-d", null));
+        nanos.addAndGet(Duration.ofSeconds(9).toNanos());
+        provider.authenticate(bearer("token-d", null));
+        verify(delegate, times(1)).authenticate(any());
+
+        // only ten seconds were left when the token was cached
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        provider.authenticate(bearer("token-d", null));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_shouldNotCacheRejectedTokens() {
+        when(delegate.authenticate(any())).thenThrow(new InvalidBearerTokenException("bad signature"));
+
+        assertThrows(InvalidBearerTokenException.class, () -> provider.authenticate(bearer("token-c", null)));
+        assertThrows(InvalidBearerTokenException.class, () -> provider.authenticate(bearer("token-c", null)));
+
+        verify(delegate, times(2)).authenticate(any());
+        assertEquals(0, provider.cache().estimatedSize());
+    }
+
+    @Test
+    void hash_shouldDifferPerToken() {
+        assertNotEquals(CachingJwtAuthenticationProvider.hash("token-a"), CachingJwtAuthenticationProvider.hash("token-b"));
+        assertEquals(CachingJwtAuthenticationProvider.hash("token-a"), CachingJwtAuthenticationProvider.hash("token-a"));
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token, Object details) {
+        BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+        bearer.setDetails(details);
+        return bearer;
+    }
+
+    private static JwtAuthenticationToken authenticated(Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("admin")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_client_admin")), "admin");
+    }
+}
@@ -0,0 +1,70 @@
+package com.inghubs.loanassignment.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthConverterTest {
+
+    private JwtAuthConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new JwtAuthConverter();
+        ReflectionTestUtils.setField(converter, "principleAttribute", "preferred_username");
+        ReflectionTestUtils.setField(converter, "resourceId", "loan-api");
+    }
+
+    @Test
+    void convert_shouldMapScopesAndResourceRoles() {
+        AbstractAuthenticationToken token = converter.convert(jwt("admin", List.of("client_admin")));
+
+        assertEquals("admin", token.getName());
+        assertEquals(Set.of("SCOPE_openid", "SCOPE_profile", "ROLE_client_admin"), names(token));
+    }
+
+    @Test
+    void convert_shouldReuseAuthoritySetForSameRoleCombination() {
+        AbstractAuthenticationToken first = converter.convert(jwt("admin", List.of("client_admin")));
+        AbstractAuthenticationToken second = converter.convert(jwt("other", List.of("client_admin")));
+        AbstractAuthenticationToken different = converter.convert(jwt("admin", List.of("client_user")));
+
+        assertEquals(names(first), names(second));
+        assertEquals(Set.of("SCOPE_openid", "SCOPE_profile", "ROLE_client_user"), names(different));
+        assertEquals(2, ((Cache<?, ?>) ReflectionTestUtils.getField(converter, "authoritiesByClaims"))
+                .estimatedSize());
+    }
+
+    @Test
+    void convert_shouldHandleTokensWithoutResourceAccess() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").claim("preferred_username", "admin").build();
+
+        assertTrue(converter.convert(jwt).getAuthorities().isEmpty());
+    }
+
+    private static Set<String> names(AbstractAuthenticationToken token) {
+        return token.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+
+    private static Jwt jwt(String username, List<String> roles) {
+        return Jwt.withTokenValue("token-" + username)
+                .header("alg", "RS256")
+                .claim("preferred_username", username)
+                .claim("scope", "openid profile")
+                .claim("resource_access", Map.of("loan-api", Map.of("roles", roles)))
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
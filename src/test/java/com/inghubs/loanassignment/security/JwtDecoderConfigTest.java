@@ -0,0 +1,31 @@
+package com.inghubs.loanassignment.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JwtDecoderConfigTest {
+
+    @Test
+    void prewarm_shouldLoadKeySet() throws Exception {
+        JWK key = new RSAKeyGenerator(2048).keyID("loan").generate().toPublicJWK();
+        JWKSource<SecurityContext> jwkSource = (selector, context) -> selector.select(new JWKSet(key));
+
+        assertEquals(1, JwtDecoderConfig.prewarm(jwkSource));
+    }
+
+    @Test
+    void prewarm_shouldTolerateUnreachableIdentityProvider() {
+        JWKSource<SecurityContext> jwkSource = (selector, context) -> {
+            throw new KeySourceException("Connection refused");
+        };
+
+        assertEquals(0, JwtDecoderConfig.prewarm(jwkSource));
+    }
+}
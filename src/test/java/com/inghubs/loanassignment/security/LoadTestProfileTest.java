@@ -0,0 +1,47 @@
+package com.inghubs.loanassignment.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"loan.outbox.relay.enabled=false", "loan.outbox.sink=memory", "loan.overdue.enabled=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "loadtest"})
+class LoadTestProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JWKSource<SecurityContext> jwkSource;
+
+    @Test
+    void loadtestProfile_shouldAuthenticateMintedTokensWithoutIdentityProvider() throws Exception {
+        assertInstanceOf(ImmutableJWKSet.class, jwkSource);
+        LoadTestTokenMinter minter = LoadTestTokenMinter.fromClasspath();
+
+        String token = minter.mint("admin", List.of("client_admin"), Duration.ofMinutes(5));
+
+        mockMvc.perform(get("/api/customers").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        // flipping a signature character must fail verification against the offline key set
+        int i = token.length() - 10;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+        mockMvc.perform(get("/api/customers").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/customers"))
+                .andExpect(status().isUnauthorized());
+    }
+}
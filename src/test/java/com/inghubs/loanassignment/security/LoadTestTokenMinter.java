@@ -0,0 +1,78 @@
+package com.inghubs.loanassignment.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Signs Keycloak-shaped access tokens with the key pair behind the loadtest profile's JWK set.
+// mvn -q test-compile exec:java -Dexec.classpathScope=test
+//     -Dexec.mainClass=com.inghubs.loanassignment.security.LoadTestTokenMinter -Dexec.args="admin client_admin 60"
+public class LoadTestTokenMinter {
+    static final String ISSUER = "http://localhost:9090/realms/loan-loadtest";
+    static final String RESOURCE_ID = "loan-api";
+
+    private final RSAKey key;
+    private final String issuer;
+
+    public LoadTestTokenMinter(RSAKey key, String issuer) {
+        this.key = key;
+        this.issuer = issuer;
+    }
+
+    public static LoadTestTokenMinter fromClasspath() throws IOException, ParseException {
+        try (InputStream in = LoadTestTokenMinter.class.getResourceAsStream("/loadtest/jwk-private.json")) {
+            if (in == null) throw new IOException("loadtest/jwk-private.json not found on the classpath");
+            return new LoadTestTokenMinter(JWKSet.load(in).getKeys().get(0).toRSAKey(), ISSUER);
+        }
+    }
+
+    public String mint(String username, List<String> roles, Duration ttl) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(UUID.nameUUIDFromBytes(username.getBytes()).toString())
+                .audience("account")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(ttl)))
+                .claim("typ", "Bearer")
+                .claim("azp", RESOURCE_ID)
+                .claim("scope", "openid profile email")
+                .claim("preferred_username", username)
+                .claim("realm_access", Map.of("roles", List.of("offline_access", "uma_authorization")))
+                .claim("resource_access", Map.of(RESOURCE_ID, Map.of("roles", roles)))
+                .build();
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .type(JOSEObjectType.JWT)
+                .keyID(key.getKeyID())
+                .build();
+        SignedJWT jwt = new SignedJWT(header, claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    // args: [username] [comma separated roles] [ttl minutes]
+    public static void main(String[] args) throws Exception {
+        String username = args.length > 0 ? args[0] : "admin";
+        List<String> roles = args.length > 1 ? Arrays.asList(args[1].split(",")) : List.of("client_admin");
+        Duration ttl = Duration.ofMinutes(args.length > 2 ? Long.parseLong(args[2]) : 60);
+        System.out.println(fromClasspath().mint(username, roles, ttl));
+    }
+}
@@ -0,0 +1,57 @@
+package com.inghubs.loanassignment.security;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestTokenMinterTest {
+
+    private final JwtDecoderConfig config = new JwtDecoderConfig();
+    private LoadTestTokenMinter minter;
+    private JWKSource<SecurityContext> jwkSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minter = LoadTestTokenMinter.fromClasspath();
+        jwkSource = config.offlineJwkSource(new FileSystemResource("loadtest/jwk-set.json"));
+    }
+
+    @Test
+    void mint_shouldProduceTokensAcceptedByOfflineKeySet() throws Exception {
+        String token = minter.mint("admin", List.of("client_admin"), Duration.ofMinutes(5));
+
+        Jwt jwt = config.jwtDecoder(jwkSource, LoadTestTokenMinter.ISSUER).decode(token);
+        JwtAuthConverter converter = new JwtAuthConverter();
+        ReflectionTestUtils.setField(converter, "principleAttribute", "preferred_username");
+        ReflectionTestUtils.setField(converter, "resourceId", LoadTestTokenMinter.RESOURCE_ID);
+        AbstractAuthenticationToken authentication = converter.convert(jwt);
+
+        assertEquals("admin", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet())
+                .contains("ROLE_client_admin"));
+    }
+
+    @Test
+    void decode_shouldRejectTokensForAnotherIssuer() throws Exception {
+        JwtDecoder production = config.jwtDecoder(jwkSource, "http://localhost:9090/realms/loan");
+
+        assertThrows(JwtValidationException.class,
+                () -> production.decode(minter.mint("admin", List.of("client_admin"), Duration.ofMinutes(5))));
+    }
+}
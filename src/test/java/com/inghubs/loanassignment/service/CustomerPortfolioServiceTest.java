@@ -0,0 +1,144 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
+import com.inghubs.loanassignment.dto.CustomerRequest;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.repository.CustomerPortfolioRepository;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.OverdueInstallmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({CustomerPortfolioService.class, CustomerService.class, LoanService.class, OverdueInstallmentService.class,
+        OverdueInstallmentRepository.class, OutboxService.class, MetricsTestConfig.class})
+class CustomerPortfolioServiceTest {
+
+    @Autowired
+    private CustomerPortfolioService portfolioService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private OverdueInstallmentService overdueService;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private CustomerPortfolioRepository portfolioRepo;
+    @Autowired
+    private LoanInstallmentRepository installmentRepo;
+
+    @Test
+    void portfolio_shouldFollowLoansAndPayments() {
+        Long customerId = customerService.createCustomer(new CustomerRequest(null, "Jane", "Doe", BigDecimal.valueOf(5_000), BigDecimal.ZERO)).getId();
+        assertEquals(0, portfolioService.getPortfolio(customerId).getActiveLoans());
+
+        Loan first = loanService.createLoan(loanRequest(customerId, 6));
+        loanService.createLoan(loanRequest(customerId, 12));
+        CustomerPortfolioSummary created = portfolioService.getPortfolio(customerId);
+        assertEquals(2, created.getActiveLoans());
+        assertEquals(0, new BigDecimal("2400.00").compareTo(created.getTotalOutstanding()));
+        assertEquals(0, new BigDecimal("2600.00").compareTo(created.getCreditHeadroom()));
+        assertEquals(first.getNextDueDate(), created.getNextDueDate());
+
+        loanService.payLoan(payment(first.getId(), BigDecimal.valueOf(200)));
+        CustomerPortfolioSummary paid = portfolioService.getPortfolio(customerId);
+        assertEquals(2, paid.getActiveLoans());
+        assertEquals(0, new BigDecimal("2200.00").compareTo(paid.getTotalOutstanding()));
+        // the paid loan moved on a month, the untouched one still falls due first
+        assertEquals(first.getNextDueDate(), paid.getNextDueDate());
+
+        customerService.updateCustomer(customerId, new CustomerRequest(null, "Jane", "Doe", BigDecimal.valueOf(6_000), null));
+        assertEquals(0, new BigDecimal("3600.00").compareTo(portfolioService.getPortfolio(customerId).getCreditHeadroom()));
+    }
+
+    @Test
+    void portfolio_shouldTrackOverdueAmountsFromScanAndPayments() {
+        LocalDate today = LocalDate.now();
+        Long customerId = customerService.createCustomer(new CustomerRequest(null, "John", "Doe", BigDecimal.valueOf(5_000), BigDecimal.ZERO)).getId();
+        Loan loan = loanService.createLoan(loanRequest(customerId, 6));
+        List<LoanInstallment> schedule = installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId());
+        schedule.get(0).setDueDate(today.minusDays(10));
+        schedule.get(1).setDueDate(today.minusDays(5));
+        installmentRepo.saveAll(schedule);
+
+        overdueService.scan(today);
+        assertEquals(0, new BigDecimal("400.00").compareTo(portfolioService.getPortfolio(customerId).getOverdueAmount()));
+
+        loanService.payLoan(payment(loan.getId(), BigDecimal.valueOf(403)));
+        CustomerPortfolioSummary portfolio = portfolioService.getPortfolio(customerId);
+        assertEquals(0, BigDecimal.ZERO.compareTo(portfolio.getOverdueAmount()));
+        assertEquals(0, new BigDecimal("800.00").compareTo(portfolio.getTotalOutstanding()));
+        assertEquals(schedule.get(2).getDueDate(), portfolio.getNextDueDate());
+    }
+
+    @Test
+    void portfolio_shouldBeRebuiltForCustomersCreatedOutsideTheService() {
+        Customer customer = new Customer();
+        customer.setName("Legacy");
+        customer.setSurname("Doe");
+        customer.setCreditLimit(BigDecimal.valueOf(5_000));
+        Long customerId = customerRepo.save(customer).getId();
+        assertTrue(portfolioRepo.findById(customerId).isEmpty());
+        assertEquals(0, new BigDecimal("5000").compareTo(portfolioService.getPortfolio(customerId).getCreditHeadroom()));
+
+        Loan loan = loanService.createLoan(loanRequest(customerId, 6));
+
+        assertTrue(portfolioRepo.findById(customerId).isPresent());
+        CustomerPortfolioSummary portfolio = portfolioService.getPortfolio(customerId);
+        assertEquals(1, portfolio.getActiveLoans());
+        assertEquals(0, new BigDecimal("1200.00").compareTo(portfolio.getUsedCreditLimit()));
+        assertEquals(loan.getNextDueDate(), portfolio.getNextDueDate());
+    }
+
+    @Test
+    void getPortfolio_shouldRejectDeletedCustomer() {
+        Long customerId = customerService.createCustomer(new CustomerRequest(null, "Gone", "Doe", BigDecimal.valueOf(5_000), BigDecimal.ZERO)).getId();
+        customerService.deleteCustomer(customerId);
+
+        assertTrue(portfolioRepo.findById(customerId).isEmpty());
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> portfolioService.getPortfolio(customerId));
+        assertEquals("Customer not found", exception.getMessage());
+    }
+
+    private static PayLoanRequest payment(Long loanId, BigDecimal amount) {
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(loanId);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static CreateLoanRequest loanRequest(Long customerId, int installments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(installments);
+        return request;
+    }
+}
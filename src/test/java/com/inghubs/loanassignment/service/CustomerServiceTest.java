@@ -1,13 +1,21 @@
 package com.inghubs.loanassignment.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.dto.CustomerPage;
 import com.inghubs.loanassignment.dto.CustomerRequest;
+import com.inghubs.loanassignment.dto.CustomerSummary;
 import com.inghubs.loanassignment.entity.Customer;
 import com.inghubs.loanassignment.repository.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -18,12 +26,16 @@ import static org.mockito.Mockito.*;
 class CustomerServiceTest {
 
     private CustomerRepository customerRepository;
+    private OutboxService outbox;
+    private CustomerPortfolioService portfolios;
     private CustomerService customerService;
 
     @BeforeEach
     void setUp() {
         customerRepository = mock(CustomerRepository.class);
-        customerService = new CustomerService(customerRepository);
+        outbox = mock(OutboxService.class);
+        portfolios = mock(CustomerPortfolioService.class);
+        customerService = new CustomerService(customerRepository, new ObjectMapper(), outbox, portfolios);
     }
 
     @Test
@@ -50,18 +62,48 @@ class CustomerServiceTest {
     }
 
     @Test
-    void getAllCustomers_shouldReturnCustomerList() {
-        Customer c1 = new Customer();
-        c1.setName("John");
-        Customer c2 = new Customer();
-        c2.setName("Jane");
+    void getCustomers_shouldReturnPageWithNextCursor() {
+        CustomerSummary c1 = new CustomerSummary(11L, "John", "Doe", BigDecimal.valueOf(1000), BigDecimal.ZERO);
+        CustomerSummary c2 = new CustomerSummary(12L, "Jane", "Doe", BigDecimal.valueOf(1000), BigDecimal.ZERO);
 
-        when(customerRepository.findAll()).thenReturn(Arrays.asList(c1, c2));
+        when(customerRepository.findPageAfter(10L, Limit.of(2))).thenReturn(Arrays.asList(c1, c2));
 
-        List<Customer> customers = customerService.getAllCustomers();
+        CustomerPage page = customerService.getCustomers(10L, 2);
 
-        assertEquals(2, customers.size());
-        assertEquals("John", customers.get(0).getName());
+        assertEquals(2, page.getItems().size());
+        assertEquals("John", page.getItems().get(0).getName());
+        assertEquals(12L, page.getNextCursor());
+    }
+
+    @Test
+    void getCustomers_shouldReturnNoCursorOnLastPageAndClampSize() {
+        CustomerSummary c1 = new CustomerSummary(1L, "John", "Doe", BigDecimal.valueOf(1000), BigDecimal.ZERO);
+
+        when(customerRepository.findPageAfter(0L, Limit.of(CustomerService.MAX_PAGE_SIZE))).thenReturn(List.of(c1));
+
+        CustomerPage page = customerService.getCustomers(null, 100_000);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void exportCustomers_shouldStreamAllPagesAsJsonArray() throws Exception {
+        List<CustomerSummary> firstPage = new ArrayList<>();
+        for (long id = 1; id <= CustomerService.MAX_PAGE_SIZE; id++) {
+            firstPage.add(new CustomerSummary(id, "Name", "Surname", BigDecimal.ONE, BigDecimal.ZERO));
+        }
+        CustomerSummary last = new CustomerSummary(1000L, "Last", "Customer", BigDecimal.ONE, BigDecimal.ZERO);
+        when(customerRepository.findPageAfter(0L, Limit.of(CustomerService.MAX_PAGE_SIZE))).thenReturn(firstPage);
+        when(customerRepository.findPageAfter((long) CustomerService.MAX_PAGE_SIZE, Limit.of(CustomerService.MAX_PAGE_SIZE))).thenReturn(List.of(last));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        customerService.exportCustomers(out);
+
+        JsonNode exported = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(CustomerService.MAX_PAGE_SIZE + 1, exported.size());
+        assertEquals("Last", exported.get(CustomerService.MAX_PAGE_SIZE).get("name").asText());
+        verify(customerRepository, never()).findAll();
     }
 
     @Test
@@ -89,33 +131,32 @@ class CustomerServiceTest {
 
     @Test
     void updateCustomer_shouldUpdateAndReturnCustomerIfExists() {
-        Customer existing = new Customer();
-        existing.setId(1L);
-        existing.setName("Old");
-        existing.setSurname("Name");
-        existing.setCreditLimit(BigDecimal.valueOf(5000));
-
-        CustomerRequest request = new CustomerRequest(1L, "Name", "SurName", BigDecimal.valueOf(1000), BigDecimal.valueOf(0));
+        CustomerRequest request = new CustomerRequest(1L, "New", "Name", BigDecimal.valueOf(10000), BigDecimal.valueOf(0));
         Customer updated = new Customer();
         updated.setId(1L);
         updated.setName("New");
         updated.setSurname("Name");
         updated.setCreditLimit(BigDecimal.valueOf(10000));
+        updated.setUsedCreditLimit(BigDecimal.valueOf(1200));
 
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(customerRepository.save(any(Customer.class))).thenReturn(updated);
+        when(customerRepository.updateProfile(1L, "New", "Name", BigDecimal.valueOf(10000))).thenReturn(1);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(updated));
 
         Customer result = customerService.updateCustomer(1L, request);
 
         assertEquals("New", result.getName());
         assertEquals("Name", result.getSurname());
         assertEquals(BigDecimal.valueOf(10000), result.getCreditLimit());
+        // the used credit limit is never written back, so concurrent reservations survive the update
+        assertEquals(BigDecimal.valueOf(1200), result.getUsedCreditLimit());
+        verify(customerRepository, never()).save(any(Customer.class));
+        verify(portfolios).customerUpdated(updated);
     }
 
     @Test
     void updateCustomer_shouldThrowExceptionIfNotFound() {
         CustomerRequest request = new CustomerRequest(1L, "Name", "SurName", BigDecimal.valueOf(1000), BigDecimal.valueOf(0));
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.updateProfile(eq(99L), any(), any(), any())).thenReturn(0);
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> {
             customerService.updateCustomer(99L, request);
@@ -129,4 +170,14 @@ class CustomerServiceTest {
         customerService.deleteCustomer(5L);
         verify(customerRepository, times(1)).deleteById(5L);
     }
+
+    @Test
+    void deleteCustomer_shouldLockCustomerBeforePortfolio() {
+        customerService.deleteCustomer(5L);
+
+        InOrder order = inOrder(customerRepository, portfolios);
+        order.verify(customerRepository).findByIdForUpdate(5L);
+        order.verify(portfolios).customerDeleted(5L);
+        order.verify(customerRepository).deleteById(5L);
+    }
 }
@@ -0,0 +1,48 @@
+package com.inghubs.loanassignment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inghubs.loanassignment.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void publish_shouldAppendOneJsonLinePerEventWithPayloadInline(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("outbox/events.jsonl");
+        FileOutboxSink sink = new FileOutboxSink(file, objectMapper);
+
+        sink.publish(List.of(event(1L, "{\"loanId\":7}"), event(2L, "{\"loanId\":8}")));
+        sink.publish(List.of(event(3L, "{\"loanId\":9}")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals(OutboxService.LOAN_CREATED, first.get("eventType").asText());
+        assertEquals(7L, first.get("payload").get("loanId").asLong());
+        assertEquals(9L, objectMapper.readTree(lines.get(2)).get("payload").get("loanId").asLong());
+    }
+
+    private static OutboxEvent event(Long id, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateType(OutboxService.LOAN);
+        event.setAggregateId(id);
+        event.setEventType(OutboxService.LOAN_CREATED);
+        event.setPayload(payload);
+        event.setCreatedAt(Instant.parse("2025-06-01T10:00:00Z"));
+        return event;
+    }
+}
@@ -0,0 +1,207 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.CacheConfig;
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.IdempotencyRecordRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "loan.idempotency.wait-timeout=1s")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({IdempotencyService.class, LoanService.class, OutboxService.class, CustomerPortfolioService.class, CacheConfig.class, MetricsTestConfig.class})
+class IdempotencyServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private LoanRepository loanRepo;
+    @Autowired
+    private IdempotencyRecordRepository recordRepo;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setName("Idem");
+        customer.setSurname("Potent");
+        customer.setCreditLimit(BigDecimal.valueOf(10_000));
+        customerId = customerRepo.save(customer).getId();
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponseWithoutRunningAgain() {
+        String key = UUID.randomUUID().toString();
+        CreateLoanRequest request = loanRequest();
+
+        Loan first = createLoan(key, request);
+        cacheManager.getCache(CacheConfig.IDEMPOTENCY).clear();
+        Loan replayed = createLoan(key, request);
+
+        assertEquals(first.getId(), replayed.getId());
+        assertEquals(0, first.getLoanAmount().compareTo(replayed.getLoanAmount()));
+        assertEquals(1, loanRepo.findByCustomerId(customerId).size());
+        assertEquals(0, new BigDecimal("1200").compareTo(customerRepo.findById(customerId).orElseThrow().getUsedCreditLimit()));
+        assertTrue(recordRepo.existsById(key));
+    }
+
+    @Test
+    void execute_shouldRejectKeyReusedForDifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        createLoan(key, loanRequest());
+
+        CreateLoanRequest other = loanRequest();
+        other.setInstallments(12);
+        assertThrows(IdempotencyConflictException.class, () -> createLoan(key, other));
+        assertEquals(1, loanRepo.findByCustomerId(customerId).size());
+    }
+
+    @Test
+    void execute_shouldNotStoreFailedExecution() {
+        String key = UUID.randomUUID().toString();
+        CreateLoanRequest request = loanRequest();
+        request.setInstallments(5);
+
+        assertThrows(IllegalArgumentException.class, () -> createLoan(key, request));
+        assertFalse(recordRepo.existsById(key));
+    }
+
+    @Test
+    void execute_shouldJoinInFlightExecutionForConcurrentDuplicates() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CreateLoanRequest request = loanRequest();
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Loan>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return idempotencyService.execute(key, "createLoan", request, Loan.class, () -> {
+                    executions.incrementAndGet();
+                    sleep();
+                    return loanService.createLoan(request);
+                });
+            }));
+        }
+        start.countDown();
+
+        Long loanId = results.get(0).get().getId();
+        for (Future<Loan> result : results) {
+            assertEquals(loanId, result.get().getId());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(1, loanRepo.findByCustomerId(customerId).size());
+    }
+
+    @Test
+    void execute_shouldGiveUpWaitingForStuckExecution() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CreateLoanRequest request = loanRequest();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Loan> first = executor.submit(() -> idempotencyService.execute(key, "createLoan", request, Loan.class, () -> {
+            started.countDown();
+            await(release);
+            return loanService.createLoan(request);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IdempotencyInProgressException.class, () -> createLoan(key, request));
+        release.countDown();
+        assertNotNull(first.get().getId());
+        executor.shutdown();
+        assertEquals(1, loanRepo.findByCustomerId(customerId).size());
+    }
+
+    @Test
+    void purgeCreatedBefore_shouldDeleteOnlyExpiredRecords() {
+        String expired = UUID.randomUUID().toString();
+        createLoan(expired, loanRequest());
+        Instant cutoff = Instant.now().plusMillis(1);
+        sleep();
+        String fresh = UUID.randomUUID().toString();
+        createLoan(fresh, loanRequest());
+
+        assertTrue(idempotencyService.purgeCreatedBefore(cutoff) >= 1);
+
+        assertFalse(recordRepo.existsById(expired));
+        assertTrue(recordRepo.existsById(fresh));
+    }
+
+    private Loan createLoan(String key, CreateLoanRequest request) {
+        return idempotencyService.execute(key, "createLoan", request, Loan.class, () -> loanService.createLoan(request));
+    }
+
+    private CreateLoanRequest loanRequest() {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(6);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.inghubs.loanassignment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InstallmentPricingTest {
+
+    private static final LocalDate NOW = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void toMinor_shouldRoundHalfUpToCents() {
+        assertEquals(12346, InstallmentPricing.toMinor(new BigDecimal("123.455")));
+        assertEquals(12345, InstallmentPricing.toMinor(new BigDecimal("123.454")));
+        assertEquals(100000, InstallmentPricing.toMinor(BigDecimal.valueOf(1000)));
+        assertEquals(new BigDecimal("1000.00"), InstallmentPricing.toAmount(100000));
+    }
+
+    @Test
+    void totalMinor_shouldApplyInterestWithoutDoubleArithmetic() {
+        assertEquals(120000, InstallmentPricing.totalMinor(100000, InstallmentPricing.rateMicros(0.2)));
+        assertEquals(110000, InstallmentPricing.totalMinor(100000, InstallmentPricing.rateMicros(0.1)));
+        assertEquals(137, InstallmentPricing.totalMinor(99, InstallmentPricing.rateMicros(0.385)));
+    }
+
+    @Test
+    void lastInstallment_shouldAbsorbRemainder() {
+        assertEquals(13333, InstallmentPricing.installmentMinor(120000, 9));
+        assertEquals(13336, InstallmentPricing.lastInstallmentMinor(120000, 9));
+        assertEquals(5000, InstallmentPricing.lastInstallmentMinor(120000, 24));
+    }
+
+    @Test
+    void payableMinor_shouldDiscountEarlyAndPenalizeLatePayments() {
+        assertEquals(20000, InstallmentPricing.payableMinor(20000, NOW, NOW));
+        assertEquals(19400, InstallmentPricing.payableMinor(20000, NOW.plusDays(30), NOW));
+        assertEquals(20040, InstallmentPricing.payableMinor(20000, NOW.minusDays(2), NOW));
+        assertEquals(13320, InstallmentPricing.payableMinor(13333, NOW.plusDays(1), NOW));
+    }
+
+    @Test
+    void divideHalfUp_shouldRoundAwayFromZeroOnTies() {
+        assertEquals(3, InstallmentPricing.divideHalfUp(5, 2));
+        assertEquals(-3, InstallmentPricing.divideHalfUp(-5, 2));
+        assertEquals(2, InstallmentPricing.divideHalfUp(7, 4));
+        assertEquals(1, InstallmentPricing.divideHalfUp(5, 4));
+    }
+}
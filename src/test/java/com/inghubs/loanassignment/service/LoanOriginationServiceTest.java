@@ -0,0 +1,140 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.CacheConfig;
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.LoanBatchItemResult;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "loan.origination.batch-size=2")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({LoanOriginationService.class, CacheConfig.class, OutboxService.class, CustomerPortfolioService.class, MetricsTestConfig.class})
+class LoanOriginationServiceTest {
+
+    @Autowired
+    private LoanOriginationService loanOriginationService;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private LoanRepository loanRepo;
+    @Autowired
+    private LoanInstallmentRepository installmentRepo;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @MockitoSpyBean
+    private CustomerPortfolioService portfolios;
+
+    @Test
+    void createLoans_shouldReportResultPerItem() {
+        Long first = customer(3000);
+        Long second = customer(1000);
+
+        List<LoanBatchItemResult> results = loanOriginationService.createLoans(List.of(
+                request(first, 1000, 6),
+                request(second, 500, 5),
+                request(first, 1000, 12),
+                request(first, 1000, 24),
+                request(Long.MAX_VALUE, 1000, 6),
+                request(second, 500, 9)));
+
+        assertCreated(results.get(0), first);
+        assertRejected(results.get(1), "Invalid installment count");
+        assertCreated(results.get(2), first);
+        assertRejected(results.get(3), "Insufficient credit limit");
+        assertRejected(results.get(4), "Customer not found");
+        assertCreated(results.get(5), second);
+
+        assertEquals(2, loanRepo.findByCustomerId(first).size());
+        assertEquals(1, loanRepo.findByCustomerId(second).size());
+        assertEquals(12, installmentRepo.findByLoanIdOrderByDueDateAsc(results.get(2).getLoanId()).size());
+        assertEquals(0, BigDecimal.valueOf(2400).compareTo(customerRepo.findById(first).orElseThrow().getUsedCreditLimit()));
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(customerRepo.findById(second).orElseThrow().getUsedCreditLimit()));
+    }
+
+    @Test
+    void createLoans_shouldCountRejectionsOnceWhenChunkIsReplayed() {
+        Long healthy = customer(3000);
+        Long failing = customer(3000);
+        doThrow(new IllegalStateException("portfolio unavailable")).when(AopTestUtils.<CustomerPortfolioService>getUltimateTargetObject(portfolios))
+                .loansCreated(argThat(customer -> customer.getId().equals(failing)), anyInt(), any(), any());
+        double before = rejections("invalid_installment_count");
+
+        // both groups share a chunk that fails on the second customer and is replayed group by group
+        List<LoanBatchItemResult> results = loanOriginationService.createLoans(List.of(
+                request(healthy, 1000, 5),
+                request(failing, 1000, 6)));
+
+        assertRejected(results.get(0), "Invalid installment count");
+        assertRejected(results.get(1), "portfolio unavailable");
+        assertEquals(0, loanRepo.findByCustomerId(failing).size());
+        assertEquals(1, rejections("invalid_installment_count") - before);
+    }
+
+    private double rejections(String reason) {
+        Counter counter = meterRegistry.find(LoanMetrics.REJECTED_LOANS).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void assertCreated(LoanBatchItemResult result, Long customerId) {
+        assertEquals(LoanBatchItemResult.CREATED, result.getStatus());
+        assertEquals(customerId, result.getCustomerId());
+        assertNotNull(result.getLoanId());
+        assertNull(result.getError());
+    }
+
+    private void assertRejected(LoanBatchItemResult result, String error) {
+        assertEquals(LoanBatchItemResult.REJECTED, result.getStatus());
+        assertNull(result.getLoanId());
+        assertEquals(error, result.getError());
+    }
+
+    private Long customer(long creditLimit) {
+        Customer customer = new Customer();
+        customer.setName("Batch");
+        customer.setSurname("Customer");
+        customer.setCreditLimit(BigDecimal.valueOf(creditLimit));
+        return customerRepo.save(customer).getId();
+    }
+
+    private static CreateLoanRequest request(Long customerId, long amount, int installments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(amount));
+        request.setInterestRate(0.2);
+        request.setInstallments(installments);
+        return request;
+    }
+}
@@ -0,0 +1,200 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.CustomerPortfolioSummary;
+import com.inghubs.loanassignment.dto.LoanTotals;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({LoanService.class, OutboxService.class, CustomerPortfolioService.class, MetricsTestConfig.class})
+class LoanServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 50;
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private LoanRepository loanRepo;
+    @Autowired
+    private LoanInstallmentRepository installmentRepo;
+    @Autowired
+    private CustomerPortfolioService portfolioService;
+
+    @Test
+    void createLoan_shouldNotOverAllocateCreditUnderConcurrency() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Jane");
+        customer.setSurname("Doe");
+        customer.setCreditLimit(BigDecimal.valueOf(12_000));
+        Long customerId = customerRepo.save(customer).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    loanService.createLoan(loanRequest(customerId));
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    assertEquals("Insufficient credit limit", e.getMessage());
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) created++;
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Customer reloaded = customerRepo.findById(customerId).orElseThrow();
+        assertEquals(10, created);
+        assertEquals(10, loanRepo.findByCustomerId(customerId).size());
+        assertEquals(0, reloaded.getUsedCreditLimit().compareTo(reloaded.getCreditLimit()));
+    }
+
+    @Test
+    void payLoan_shouldSettleEachInstallmentOnceUnderConcurrency() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("John");
+        customer.setSurname("Doe");
+        customer.setCreditLimit(BigDecimal.valueOf(12_000));
+        Long customerId = customerRepo.save(customer).getId();
+        List<Long> loanIds = List.of(loanService.createLoan(loanRequest(customerId)).getId(),
+                loanService.createLoan(loanRequest(customerId)).getId());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Long loanId = loanIds.get(i % loanIds.size());
+            results.add(executor.submit(() -> {
+                start.await();
+                PayLoanRequest request = new PayLoanRequest();
+                request.setLoanId(loanId);
+                request.setAmount(BigDecimal.valueOf(200));
+                return new int[]{loanIds.indexOf(loanId), paidCount(loanService.payLoan(request))};
+            }));
+        }
+        start.countDown();
+
+        int[] reported = new int[loanIds.size()];
+        for (Future<int[]> result : results) {
+            int[] outcome = result.get();
+            reported[outcome[0]] += outcome[1];
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < loanIds.size(); i++) {
+            Loan loan = loanRepo.findById(loanIds.get(i)).orElseThrow();
+            long paidRows = installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId()).stream()
+                    .filter(LoanInstallment::isPaid)
+                    .count();
+            // every installment inside the three month window is paid, and each exactly once
+            assertEquals(3, paidRows);
+            assertEquals(paidRows, reported[i]);
+            assertEquals(paidRows, loan.getPaidInstallmentCount().longValue());
+            assertEquals(0, new BigDecimal("600.00").compareTo(loan.getRemainingAmount()));
+        }
+    }
+
+    @Test
+    void payLoan_shouldKeepPortfolioConsistentUnderConcurrency() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("Jim");
+        customer.setSurname("Doe");
+        customer.setCreditLimit(BigDecimal.valueOf(12_000));
+        Long customerId = customerRepo.save(customer).getId();
+        List<Long> loanIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            loanIds.add(loanService.createLoan(loanRequest(customerId)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Long loanId = loanIds.get(i % loanIds.size());
+            results.add(executor.submit(() -> {
+                start.await();
+                PayLoanRequest request = new PayLoanRequest();
+                request.setLoanId(loanId);
+                request.setAmount(BigDecimal.valueOf(200));
+                return loanService.payLoan(request);
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // every payment re-derived the next due date after the ones committed before it, so none left a stale minimum
+        LoanTotals totals = loanRepo.findActiveTotals(customerId);
+        CustomerPortfolioSummary portfolio = portfolioService.getPortfolio(customerId);
+        assertEquals(8, portfolio.getActiveLoans());
+        assertEquals(0, totals.getTotalOutstanding().compareTo(portfolio.getTotalOutstanding()));
+        assertEquals(0, new BigDecimal("4800.00").compareTo(portfolio.getTotalOutstanding()));
+        assertEquals(totals.getNextDueDate(), portfolio.getNextDueDate());
+    }
+
+    private static int paidCount(String message) {
+        Matcher matcher = Pattern.compile("Paid (\\d+) installments").matcher(message);
+        assertTrue(matcher.find());
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static CreateLoanRequest loanRequest(Long customerId) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(6);
+        return request;
+    }
+}
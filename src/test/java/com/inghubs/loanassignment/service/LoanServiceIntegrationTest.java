@@ -0,0 +1,211 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanPage;
+import com.inghubs.loanassignment.dto.LoanSummary;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.LoanRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({LoanService.class, OutboxService.class, CustomerPortfolioService.class, MetricsTestConfig.class})
+class LoanServiceIntegrationTest {
+
+    // customer select, credit reservation, customer re-read, loan insert, installment batch, outbox insert,
+    // portfolio update and at most one pooled fetch per sequence
+    private static final long MAX_CREATE_LOAN_STATEMENTS = 10;
+    // locking loan select, customer select, payable window select, next unpaid select, batched installment update,
+    // loan update, outbox insert, portfolio update and at most one pooled outbox sequence fetch
+    private static final long MAX_PAY_LOAN_STATEMENTS = 9;
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private LoanRepository loanRepo;
+    @Autowired
+    private LoanInstallmentRepository installmentRepo;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        customer = new Customer();
+        customer.setName("John");
+        customer.setSurname("Doe");
+        customer.setCreditLimit(BigDecimal.valueOf(1_000_000));
+        customer = customerRepo.saveAndFlush(customer);
+        createLoan(6);
+    }
+
+    @Test
+    void createLoan_shouldInsertScheduleInSingleBatch() {
+        assertTrue(statementsFor(6) <= MAX_CREATE_LOAN_STATEMENTS);
+        assertTrue(statementsFor(24) <= MAX_CREATE_LOAN_STATEMENTS);
+    }
+
+    @Test
+    void createLoan_shouldInsertLoanAndAllInstallments() {
+        statistics.clear();
+
+        Loan loan = createLoan(24);
+
+        // loan, installments and its LoanCreated outbox event
+        assertEquals(26, statistics.getEntityInsertCount());
+        assertEquals(24, installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId()).size());
+    }
+
+    @Test
+    void payLoan_shouldUpdateOnlyPaidInstallmentsInSingleBatch() {
+        Loan loan = createLoan(24);
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(loan.getId());
+        request.setAmount(BigDecimal.valueOf(10_000));
+        statistics.clear();
+
+        String result = loanService.payLoan(request);
+        entityManager.flush();
+
+        assertTrue(result.startsWith("Paid 3 installments"));
+        assertEquals(4, statistics.getEntityUpdateCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_PAY_LOAN_STATEMENTS);
+
+        Loan paid = loanRepo.findById(loan.getId()).orElseThrow();
+        LoanInstallment next = installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId()).get(3);
+        assertEquals(3, paid.getPaidInstallmentCount());
+        assertEquals(0, next.getAmount().multiply(BigDecimal.valueOf(21)).compareTo(paid.getRemainingAmount()));
+        assertEquals(next.getDueDate(), paid.getNextDueDate());
+        assertEquals(0, next.getAmount().compareTo(paid.getNextDueAmount()));
+    }
+
+    @Test
+    void listInstallments_shouldProjectScheduleInDueDateOrder() {
+        Loan loan = createLoan(6);
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(loan.getId());
+        request.setAmount(BigDecimal.valueOf(1000));
+        loanService.payLoan(request);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<InstallmentSummary> installments = loanService.listInstallments(loan.getId());
+
+        assertEquals(6, installments.size());
+        assertEquals(loan.getId(), installments.get(0).getLoanId());
+        assertTrue(installments.get(0).isPaid());
+        assertNull(installments.get(5).getPaymentDate());
+        assertTrue(installments.get(0).getDueDate().isBefore(installments.get(1).getDueDate()));
+    }
+
+    @Test
+    void payLoan_shouldKeepOverdueFlagsWrittenSinceInstallmentsWereLoaded() {
+        Loan loan = createLoan(6);
+        LoanInstallment first = installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId()).get(0);
+        // the overdue scan marks the installment through JDBC while the loaded entity still holds the old flags
+        jdbcTemplate.update("update loan_installment set overdue = true, accrued_penalty = 5 where id = ?", first.getId());
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(loan.getId());
+        request.setAmount(BigDecimal.valueOf(200));
+
+        loanService.payLoan(request);
+        entityManager.flush();
+
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("select overdue from loan_installment where id = ?", Boolean.class, first.getId()));
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(jdbcTemplate.queryForObject(
+                "select accrued_penalty from loan_installment where id = ?", BigDecimal.class, first.getId())));
+    }
+
+    @Test
+    void createAndPayLoan_shouldTimeEachStage() {
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(createLoan(12).getId());
+        request.setAmount(BigDecimal.valueOf(1000));
+        loanService.payLoan(request);
+
+        for (String stage : List.of(LoanMetrics.CREDIT_CHECK, LoanMetrics.LOAN_INSERT, LoanMetrics.SCHEDULE_INSERT,
+                LoanMetrics.INSTALLMENT_FETCH, LoanMetrics.PAYMENT_CALCULATION, LoanMetrics.PAYMENT_FLUSH)) {
+            assertTrue(meterRegistry.get(stage).timer().count() > 0, stage);
+        }
+    }
+
+    @Test
+    void listLoans_shouldFilterAndPaginateByKeyset() {
+        Loan twelve = createLoan(12);
+        Loan twentyFour = createLoan(24);
+        LoanFilter unpaid = new LoanFilter(false, null, LocalDate.now(), LocalDate.now());
+
+        LoanPage first = loanService.listLoans(customer.getId(), unpaid, null, 2);
+        LoanPage second = loanService.listLoans(customer.getId(), unpaid, first.getNextCursor(), 2);
+        LoanPage filtered = loanService.listLoans(customer.getId(), new LoanFilter(null, 12, null, null), null, 10);
+        LoanPage paid = loanService.listLoans(customer.getId(), new LoanFilter(true, null, null, null), null, 10);
+
+        assertEquals(2, first.getItems().size());
+        assertEquals(twentyFour.getId(), second.getItems().get(0).getId());
+        assertNull(second.getNextCursor());
+        assertEquals(List.of(twelve.getId()), filtered.getItems().stream().map(LoanSummary::getId).toList());
+        assertEquals(customer.getId(), filtered.getItems().get(0).getCustomerId());
+        assertTrue(paid.getItems().isEmpty());
+    }
+
+    private long statementsFor(int installments) {
+        statistics.clear();
+        createLoan(installments);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Loan createLoan(int installments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customer.getId());
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(installments);
+        Loan loan = loanService.createLoan(request);
+        entityManager.flush();
+        entityManager.clear();
+        return loan;
+    }
+}
@@ -1,15 +1,25 @@
 package com.inghubs.loanassignment.service;
 
 import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.InstallmentSummary;
+import com.inghubs.loanassignment.dto.LoanFilter;
+import com.inghubs.loanassignment.dto.LoanPage;
+import com.inghubs.loanassignment.dto.LoanSummary;
 import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.dto.PaymentQuote;
 import com.inghubs.loanassignment.entity.Customer;
 import com.inghubs.loanassignment.entity.Loan;
 import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.entity.ScheduleType;
 import com.inghubs.loanassignment.repository.CustomerRepository;
 import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
 import com.inghubs.loanassignment.repository.LoanRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,6 +27,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 class LoanServiceTest {
@@ -24,14 +35,21 @@ class LoanServiceTest {
     private CustomerRepository customerRepo;
     private LoanRepository loanRepo;
     private LoanInstallmentRepository installmentRepo;
+    private OutboxService outbox;
+    private CustomerPortfolioService portfolios;
     private LoanService loanService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
         customerRepo = mock(CustomerRepository.class);
         loanRepo = mock(LoanRepository.class);
         installmentRepo = mock(LoanInstallmentRepository.class);
-        loanService = new LoanService(customerRepo, loanRepo, installmentRepo);
+        outbox = mock(OutboxService.class);
+        portfolios = mock(CustomerPortfolioService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        loanService = new LoanService(customerRepo, loanRepo, installmentRepo, new LoanMetrics(meterRegistry, ObservationRegistry.NOOP),
+                outbox, portfolios);
     }
 
     @Test
@@ -67,6 +85,7 @@ class LoanServiceTest {
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> loanService.createLoan(req));
         assertEquals("Invalid interest rate", ex.getMessage());
+        assertEquals(1, meterRegistry.get(LoanMetrics.REJECTED_LOANS).tag("reason", "invalid_interest_rate").counter().count());
     }
 
     @Test
@@ -78,12 +97,15 @@ class LoanServiceTest {
         req.setAmount(BigDecimal.valueOf(1000));
 
         Customer c = new Customer();
+        c.setId(1L);
         c.setCreditLimit(BigDecimal.valueOf(1100));
         c.setUsedCreditLimit(BigDecimal.valueOf(1000));
         when(customerRepo.findById(1L)).thenReturn(Optional.of(c));
+        when(customerRepo.reserveCredit(1L, new BigDecimal("1200.00"))).thenReturn(0);
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> loanService.createLoan(req));
         assertEquals("Insufficient credit limit", ex.getMessage());
+        assertEquals(1, meterRegistry.get(LoanMetrics.REJECTED_LOANS).tag("reason", "insufficient_credit_limit").counter().count());
     }
 
     @Test
@@ -95,35 +117,97 @@ class LoanServiceTest {
         req.setAmount(BigDecimal.valueOf(1000));
 
         Customer c = new Customer();
+        c.setId(1L);
         c.setCreditLimit(BigDecimal.valueOf(2000));
         c.setUsedCreditLimit(BigDecimal.ZERO);
         when(customerRepo.findById(1L)).thenReturn(Optional.of(c));
+        when(customerRepo.reserveCredit(1L, new BigDecimal("1200.00"))).thenReturn(1);
 
-        when(loanRepo.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(installmentRepo.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(loanRepo.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+        when(installmentRepo.saveAllAndFlush(anyList())).thenAnswer(i -> i.getArgument(0));
 
         Loan result = loanService.createLoan(req);
 
-        assertEquals(BigDecimal.valueOf(1200.0), result.getLoanAmount());
-        verify(installmentRepo, times(6)).save(any(LoanInstallment.class));
+        assertEquals(new BigDecimal("1200.00"), result.getLoanAmount());
+        ArgumentCaptor<List<LoanInstallment>> installments = ArgumentCaptor.forClass(List.class);
+        verify(installmentRepo).saveAllAndFlush(installments.capture());
+        assertEquals(6, installments.getValue().size());
+        verify(installmentRepo, never()).save(any(LoanInstallment.class));
+        assertEquals(0, result.getPaidInstallmentCount());
+        assertEquals(0, BigDecimal.valueOf(1200).compareTo(result.getRemainingAmount()));
+        assertEquals(installments.getValue().get(0).getDueDate(), result.getNextDueDate());
+        assertEquals(installments.getValue().get(0).getAmount(), result.getNextDueAmount());
     }
 
     @Test
-    void listLoans_shouldReturnList() {
-        Loan loan = new Loan();
-        when(loanRepo.findByCustomerId(1L)).thenReturn(List.of(loan));
+    void createLoan_shouldPutRoundingRemainderOnLastInstallment() {
+        CreateLoanRequest req = new CreateLoanRequest();
+        req.setCustomerId(1L);
+        req.setInstallments(9);
+        req.setInterestRate(0.2);
+        req.setAmount(BigDecimal.valueOf(1000));
 
-        List<Loan> loans = loanService.listLoans(1L);
+        Customer c = new Customer();
+        c.setId(1L);
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(c));
+        when(customerRepo.reserveCredit(1L, new BigDecimal("1200.00"))).thenReturn(1);
+        when(loanRepo.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
 
-        assertEquals(1, loans.size());
+        Loan result = loanService.createLoan(req);
+
+        ArgumentCaptor<List<LoanInstallment>> installments = ArgumentCaptor.forClass(List.class);
+        verify(installmentRepo).saveAllAndFlush(installments.capture());
+        assertEquals(new BigDecimal("133.33"), installments.getValue().get(0).getAmount());
+        assertEquals(new BigDecimal("133.36"), installments.getValue().get(8).getAmount());
+        assertEquals(new BigDecimal("1200.00"), installments.getValue().stream().map(LoanInstallment::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertEquals(new BigDecimal("1200.00"), result.getRemainingAmount());
+        assertEquals(new BigDecimal("133.33"), result.getNextDueAmount());
+    }
+
+    @Test
+    void createLoan_shouldReserveScheduleTotal_whenAnnuityRequested() {
+        CreateLoanRequest req = new CreateLoanRequest();
+        req.setCustomerId(1L);
+        req.setInstallments(12);
+        req.setInterestRate(0.12);
+        req.setAmount(BigDecimal.valueOf(1000));
+        req.setScheduleType(ScheduleType.ANNUITY);
+
+        Customer c = new Customer();
+        c.setId(1L);
+        when(customerRepo.findById(1L)).thenReturn(Optional.of(c));
+        when(customerRepo.reserveCredit(1L, new BigDecimal("1066.19"))).thenReturn(1);
+        when(loanRepo.saveAndFlush(any())).thenAnswer(i -> i.getArgument(0));
+
+        Loan result = loanService.createLoan(req);
+
+        ArgumentCaptor<List<LoanInstallment>> installments = ArgumentCaptor.forClass(List.class);
+        verify(installmentRepo).saveAllAndFlush(installments.capture());
+        assertEquals(ScheduleType.ANNUITY, result.getScheduleType());
+        assertEquals(new BigDecimal("1066.19"), result.getLoanAmount());
+        assertEquals(new BigDecimal("88.85"), result.getNextDueAmount());
+        assertEquals(new BigDecimal("88.84"), installments.getValue().get(11).getAmount());
+    }
+
+    @Test
+    void listLoans_shouldReturnPage() {
+        LoanSummary loan = new LoanSummary();
+        loan.setId(7L);
+        LoanFilter filter = new LoanFilter(false, 12, LocalDate.of(2025, 1, 1), null);
+        when(loanRepo.findPage(1L, 0L, false, 12, LocalDate.of(2025, 1, 1), null, Limit.of(1))).thenReturn(List.of(loan));
+
+        LoanPage page = loanService.listLoans(1L, filter, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(7L, page.getNextCursor());
     }
 
     @Test
     void listInstallments_shouldReturnList() {
-        LoanInstallment installment = new LoanInstallment();
-        when(installmentRepo.findByLoanIdOrderByDueDateAsc(1L)).thenReturn(List.of(installment));
+        InstallmentSummary installment = new InstallmentSummary();
+        when(installmentRepo.findSummariesByLoanId(1L)).thenReturn(List.of(installment));
 
-        List<LoanInstallment> list = loanService.listInstallments(1L);
+        List<InstallmentSummary> list = loanService.listInstallments(1L);
         assertEquals(1, list.size());
     }
 
@@ -132,6 +216,8 @@ class LoanServiceTest {
         Loan loan = new Loan();
         loan.setId(1L);
         loan.setPaid(false);
+        loan.setNumberOfInstallments(3);
+        loan.setRemainingAmount(BigDecimal.valueOf(600));
 
         PayLoanRequest request = new PayLoanRequest();
         request.setLoanId(1L);
@@ -150,10 +236,11 @@ class LoanServiceTest {
         LoanInstallment inst3 = new LoanInstallment();
         inst3.setAmount(BigDecimal.valueOf(200));
         inst3.setDueDate(LocalDate.now().plusMonths(4));
-        inst3.setPaid(false); // won't be paid
+        inst3.setPaid(false); // won't be paid, filtered out by the payable window query
 
-        when(loanRepo.findById(1L)).thenReturn(Optional.of(loan));
-        when(installmentRepo.findByLoanIdOrderByDueDateAsc(1L)).thenReturn(List.of(inst1, inst2, inst3));
+        when(loanRepo.findByIdForUpdate(1L)).thenReturn(Optional.of(loan));
+        when(installmentRepo.findPayableInstallments(eq(1L), any())).thenReturn(List.of(inst1, inst2));
+        when(installmentRepo.findFirstByLoanIdAndIsPaidFalseAndDueDateAfterOrderByDueDateAsc(eq(1L), any())).thenReturn(Optional.of(inst3));
 
         String result = loanService.payLoan(request);
 
@@ -161,7 +248,17 @@ class LoanServiceTest {
         assertTrue(inst2.isPaid());
         assertFalse(inst3.isPaid());
         assertTrue(result.contains("Paid 2 installments"));
-        verify(installmentRepo, times(2)).save(any());
+        assertTrue(result.contains("Loan fully paid: false"));
+        verify(installmentRepo).saveAll(List.of(inst1, inst2));
+        verify(installmentRepo, never()).save(any());
+        assertEquals(2, loan.getPaidInstallmentCount());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(loan.getRemainingAmount()));
+        assertEquals(new BigDecimal("200.40"), inst1.getPaidAmount());
+        assertEquals(new BigDecimal("200.00"), inst2.getPaidAmount());
+        assertEquals(2, meterRegistry.get(LoanMetrics.INSTALLMENTS_PAID).summary().totalAmount());
+        assertEquals(99.6, meterRegistry.get(LoanMetrics.PAYMENT_REMAINDER).summary().totalAmount());
+        assertEquals(inst3.getDueDate(), loan.getNextDueDate());
+        assertEquals(inst3.getAmount(), loan.getNextDueAmount());
     }
 
     @Test
@@ -169,6 +266,8 @@ class LoanServiceTest {
         Loan loan = new Loan();
         loan.setId(1L);
         loan.setPaid(false);
+        loan.setNumberOfInstallments(3);
+        loan.setRemainingAmount(BigDecimal.valueOf(300));
 
         PayLoanRequest request = new PayLoanRequest();
         request.setLoanId(1L);
@@ -183,14 +282,70 @@ class LoanServiceTest {
             installments.add(inst);
         }
 
-        when(loanRepo.findById(1L)).thenReturn(Optional.of(loan));
-        when(installmentRepo.findByLoanIdOrderByDueDateAsc(1L)).thenReturn(installments);
+        when(loanRepo.findByIdForUpdate(1L)).thenReturn(Optional.of(loan));
+        when(installmentRepo.findPayableInstallments(eq(1L), any())).thenReturn(installments);
 
         String result = loanService.payLoan(request);
 
         assertTrue(loan.isPaid());
         assertTrue(result.contains("Loan fully paid: true"));
         verify(loanRepo).save(loan);
+        assertEquals(0, BigDecimal.ZERO.compareTo(loan.getRemainingAmount()));
+        assertNull(loan.getNextDueDate());
+        verify(installmentRepo, never()).findFirstByLoanIdAndIsPaidFalseAndDueDateAfterOrderByDueDateAsc(any(), any());
+    }
+
+    @Test
+    void payLoan_shouldRejectSubCentAmount() {
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(1L);
+        request.setAmount(new BigDecimal("100.005"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> loanService.payLoan(request));
+
+        assertEquals("Invalid payment amount", exception.getMessage());
+        verify(loanRepo, never()).findByIdForUpdate(any());
+        // trailing zeros are not sub-cent
+        request.setAmount(new BigDecimal("100.000"));
+        assertThrows(LoanNotFoundException.class, () -> loanService.payLoan(request));
     }
-}
 
+    @Test
+    void quotePayment_shouldReturnPayableAndCumulativeAmountsWithoutSideEffects() {
+        Loan loan = new Loan();
+        loan.setId(1L);
+        loan.setNumberOfInstallments(2);
+
+        LoanInstallment late = new LoanInstallment();
+        late.setId(10L);
+        late.setAmount(BigDecimal.valueOf(200));
+        late.setDueDate(LocalDate.now().minusDays(2));
+        LoanInstallment early = new LoanInstallment();
+        early.setId(11L);
+        early.setAmount(BigDecimal.valueOf(200));
+        early.setDueDate(LocalDate.now().plusDays(10));
+
+        when(loanRepo.findById(1L)).thenReturn(Optional.of(loan));
+        when(installmentRepo.findPayableInstallments(eq(1L), any())).thenReturn(List.of(late, early));
+
+        PaymentQuote quote = loanService.quotePayment(1L);
+
+        assertEquals(LocalDate.now(), quote.getQuoteDate());
+        assertEquals(new BigDecimal("200.40"), quote.getInstallments().get(0).getPayableAmount());
+        assertEquals(new BigDecimal("198.00"), quote.getInstallments().get(1).getPayableAmount());
+        assertEquals(new BigDecimal("398.40"), quote.getInstallments().get(1).getCumulativeAmount());
+        assertEquals(new BigDecimal("398.40"), quote.getTotalPayable());
+        assertTrue(quote.isSettlesLoan());
+        assertFalse(late.isPaid());
+        verify(installmentRepo, never()).saveAll(any());
+        verify(loanRepo, never()).save(any());
+    }
+
+    @Test
+    void quotePayment_shouldThrow_whenLoanNotFound() {
+        when(loanRepo.findById(1L)).thenReturn(Optional.empty());
+
+        LoanNotFoundException ex = assertThrows(LoanNotFoundException.class, () -> loanService.quotePayment(1L));
+        assertEquals("Loan not found", ex.getMessage());
+    }
+}
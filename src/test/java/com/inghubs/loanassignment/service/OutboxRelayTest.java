@@ -0,0 +1,147 @@
+package com.inghubs.loanassignment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.CustomerRequest;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.OutboxEvent;
+import com.inghubs.loanassignment.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "loan.outbox.relay.batch-size=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxRelay.class, OutboxService.class, CustomerPortfolioService.class, LoanService.class, CustomerService.class, MetricsTestConfig.class,
+        OutboxRelayTest.SinkConfig.class})
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        FailingOnceSink outboxSink() {
+            return new FailingOnceSink();
+        }
+    }
+
+    @Autowired
+    private OutboxRelay relay;
+    @Autowired
+    private FailingOnceSink sink;
+    @Autowired
+    private OutboxEventRepository outboxRepo;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // other committed tests in this database leave their events behind
+        outboxRepo.deleteAll();
+        sink.clear();
+    }
+
+    @Test
+    void relay_shouldPublishStateChangesInOrderAndDrainOutbox() throws Exception {
+        Long customerId = customerService.createCustomer(new CustomerRequest(null, "Jane", "Doe", BigDecimal.valueOf(10_000), BigDecimal.ZERO)).getId();
+        Loan loan = loanService.createLoan(loanRequest(customerId));
+        PayLoanRequest payment = new PayLoanRequest();
+        payment.setLoanId(loan.getId());
+        payment.setAmount(BigDecimal.valueOf(200));
+        loanService.payLoan(payment);
+        customerService.deleteCustomer(-1L);
+
+        assertEquals(4, relay.relay());
+
+        List<OutboxEvent> published = sink.events();
+        assertEquals(List.of(OutboxService.CUSTOMER_CREATED, OutboxService.LOAN_CREATED, OutboxService.LOAN_PAYMENT_APPLIED,
+                OutboxService.CUSTOMER_DELETED), published.stream().map(OutboxEvent::getEventType).toList());
+        JsonNode created = objectMapper.readTree(published.get(1).getPayload());
+        assertEquals(loan.getId(), created.get("loanId").asLong());
+        assertEquals(customerId, created.get("customerId").asLong());
+        assertEquals("FLAT", created.get("scheduleType").asText());
+        JsonNode paid = objectMapper.readTree(published.get(2).getPayload());
+        assertEquals(1, paid.get("paidInstallments").asInt());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(paid.get("remainingAmount").decimalValue()));
+        assertEquals(0, outboxRepo.count());
+    }
+
+    @Test
+    void relay_shouldKeepEventsWhenSinkFails() {
+        Long customerId = customerService.createCustomer(new CustomerRequest(null, "John", "Doe", BigDecimal.valueOf(10_000), BigDecimal.ZERO)).getId();
+        sink.failNext();
+
+        relay.relayPendingEvents();
+
+        assertEquals(1, outboxRepo.count());
+        assertTrue(sink.events().isEmpty());
+        assertEquals(1, relay.relay());
+        assertEquals(customerId, sink.events().get(0).getAggregateId());
+    }
+
+    @Test
+    void createLoan_shouldNotRecordEventWhenRejected() {
+        Long customerId = customerService.createCustomer(new CustomerRequest(null, "Poor", "Doe", BigDecimal.ONE, BigDecimal.ZERO)).getId();
+        outboxRepo.deleteAll();
+
+        assertThrows(IllegalArgumentException.class, () -> loanService.createLoan(loanRequest(customerId)));
+
+        assertEquals(0, outboxRepo.count());
+    }
+
+    private static CreateLoanRequest loanRequest(Long customerId) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(6);
+        return request;
+    }
+
+    static class FailingOnceSink extends InMemoryOutboxSink {
+        private boolean fail;
+
+        void failNext() {
+            fail = true;
+        }
+
+        @Override
+        public synchronized void clear() {
+            fail = false;
+            super.clear();
+        }
+
+        @Override
+        public synchronized void publish(List<OutboxEvent> batch) {
+            if (fail) {
+                fail = false;
+                throw new IllegalStateException("sink unavailable");
+            }
+            super.publish(batch);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.config.MetricsTestConfig;
+import com.inghubs.loanassignment.dto.CreateLoanRequest;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import com.inghubs.loanassignment.entity.Customer;
+import com.inghubs.loanassignment.entity.CustomerDelinquency;
+import com.inghubs.loanassignment.entity.Loan;
+import com.inghubs.loanassignment.entity.LoanInstallment;
+import com.inghubs.loanassignment.repository.CustomerDelinquencyRepository;
+import com.inghubs.loanassignment.repository.CustomerRepository;
+import com.inghubs.loanassignment.repository.LoanInstallmentRepository;
+import com.inghubs.loanassignment.repository.OverdueInstallmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "loan.overdue.chunk-size=1")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OverdueInstallmentService.class, OverdueInstallmentRepository.class, LoanService.class, OutboxService.class,
+        CustomerPortfolioService.class, MetricsTestConfig.class})
+class OverdueInstallmentServiceTest {
+
+    @Autowired
+    private OverdueInstallmentService overdueService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CustomerRepository customerRepo;
+    @Autowired
+    private LoanInstallmentRepository installmentRepo;
+    @Autowired
+    private CustomerDelinquencyRepository delinquencyRepo;
+
+    @Test
+    void scan_shouldMaterializePenaltiesAndCustomerCountersAcrossChunks() {
+        LocalDate today = LocalDate.now();
+        Long lateCustomer = customer("Late");
+        Long onTimeCustomer = customer("OnTime");
+        Loan lateLoan = loanService.createLoan(loanRequest(lateCustomer));
+        loanService.createLoan(loanRequest(onTimeCustomer));
+        List<LoanInstallment> schedule = installmentRepo.findByLoanIdOrderByDueDateAsc(lateLoan.getId());
+        schedule.get(0).setDueDate(today.minusDays(10));
+        schedule.get(1).setDueDate(today.minusDays(5));
+        installmentRepo.saveAll(schedule);
+
+        OverdueInstallmentService.ScanResult result = overdueService.scan(today);
+
+        assertTrue(result.overdueInstallments() >= 2);
+        List<LoanInstallment> scanned = installmentRepo.findByLoanIdOrderByDueDateAsc(lateLoan.getId());
+        assertTrue(scanned.get(0).isOverdue());
+        assertEquals(0, new BigDecimal("2.00").compareTo(scanned.get(0).getAccruedPenalty()));
+        assertTrue(scanned.get(1).isOverdue());
+        assertEquals(0, new BigDecimal("1.00").compareTo(scanned.get(1).getAccruedPenalty()));
+        assertFalse(scanned.get(2).isOverdue());
+
+        CustomerDelinquency delinquency = delinquencyRepo.findById(lateCustomer).orElseThrow();
+        assertEquals(2, delinquency.getOverdueInstallments());
+        assertEquals(0, new BigDecimal("400.00").compareTo(delinquency.getOverdueAmount()));
+        assertEquals(0, new BigDecimal("3.00").compareTo(delinquency.getAccruedPenalty()));
+        assertTrue(delinquencyRepo.findById(onTimeCustomer).isEmpty());
+    }
+
+    @Test
+    void scan_shouldResetCountersOnceCustomerCatchesUp() {
+        LocalDate today = LocalDate.now();
+        Long customerId = customer("Recovered");
+        Loan loan = loanService.createLoan(loanRequest(customerId));
+        LoanInstallment first = installmentRepo.findByLoanIdOrderByDueDateAsc(loan.getId()).get(0);
+        first.setDueDate(today.minusDays(20));
+        installmentRepo.save(first);
+        overdueService.scan(today);
+        assertEquals(1, delinquencyRepo.findById(customerId).orElseThrow().getOverdueInstallments());
+
+        PayLoanRequest payment = new PayLoanRequest();
+        payment.setLoanId(loan.getId());
+        payment.setAmount(BigDecimal.valueOf(250));
+        loanService.payLoan(payment);
+        overdueService.scan(today);
+
+        CustomerDelinquency delinquency = delinquencyRepo.findById(customerId).orElseThrow();
+        assertEquals(0, delinquency.getOverdueInstallments());
+        assertEquals(0, BigDecimal.ZERO.compareTo(delinquency.getAccruedPenalty()));
+        assertTrue(installmentRepo.findById(first.getId()).orElseThrow().isOverdue());
+    }
+
+    private Long customer(String name) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setSurname("Doe");
+        customer.setCreditLimit(BigDecimal.valueOf(10_000));
+        return customerRepo.save(customer).getId();
+    }
+
+    private static CreateLoanRequest loanRequest(Long customerId) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(BigDecimal.valueOf(1000));
+        request.setInterestRate(0.2);
+        request.setInstallments(6);
+        return request;
+    }
+}
@@ -0,0 +1,127 @@
+package com.inghubs.loanassignment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inghubs.loanassignment.dto.PayLoanRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class PaymentIngestionServiceTest {
+
+    private static final String SETTLEMENT_FILE = """
+            {"loanId":1,"amount":500}
+            not json
+            {"loanId":2,"amount":-5}
+
+            {"loanId":3,"amount":100}
+            {"loanId":4,"amount":100}
+            """;
+
+    private LoanService loanService;
+    private PaymentIngestionService ingestionService;
+    private MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        loanService = mock(LoanService.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        meterRegistry = new SimpleMeterRegistry();
+        LoanMetrics metrics = new LoanMetrics(meterRegistry, ObservationRegistry.create());
+        ingestionService = new PaymentIngestionService(loanService, transactionTemplate, objectMapper, metrics, 2);
+
+        when(loanService.applyPayment(any())).thenReturn(new LoanService.PaymentResult(BigDecimal.TEN, 2, false, BigDecimal.valueOf(200), BigDecimal.ZERO));
+        doThrow(new IllegalArgumentException("Invalid payment amount"))
+                .when(loanService).applyPayment(argThat(request -> request.getLoanId() == 2L));
+        doThrow(new LoanNotFoundException())
+                .when(loanService).applyPayment(argThat(request -> request.getLoanId() == 3L));
+    }
+
+    @Test
+    void ingest_shouldWriteOutcomePerRecordAndCheckpointPerChunk() throws Exception {
+        List<JsonNode> output = ingest(SETTLEMENT_FILE, 0);
+
+        assertEquals(1, output.get(0).get("line").asLong());
+        assertEquals("APPLIED", output.get(0).get("status").asText());
+        assertEquals(2, output.get(0).get("paidCount").asInt());
+        assertEquals("Malformed payment record", output.get(1).get("error").asText());
+        assertEquals(2, output.get(2).get("checkpoint").asLong());
+        assertEquals("Invalid payment amount", output.get(3).get("error").asText());
+        assertEquals(3, output.get(3).get("line").asLong());
+        assertEquals("Loan not found", output.get(4).get("error").asText());
+        assertEquals(5, output.get(5).get("checkpoint").asLong());
+        assertEquals("APPLIED", output.get(6).get("status").asText());
+        assertEquals(6, output.get(7).get("checkpoint").asLong());
+        assertEquals(8, output.size());
+        // rejections do not roll back their chunk, so no record is replayed on its own
+        verify(loanService, times(1)).applyPayment(argThat(request -> request.getLoanId() == 2L));
+        verify(loanService, times(4)).applyPayment(any(PayLoanRequest.class));
+    }
+
+    @Test
+    void ingest_shouldMeterPaymentsOnce_whenChunkIsReplayed() throws Exception {
+        doThrow(new IllegalStateException("Deadlock detected"))
+                .when(loanService).applyPayment(argThat(request -> request.getLoanId() == 5L));
+
+        // loan 1 is applied in the failed chunk and again on its own replay
+        List<JsonNode> output = ingest("""
+                {"loanId":1,"amount":500}
+                {"loanId":5,"amount":500}
+                """, 0);
+
+        assertEquals("APPLIED", output.get(0).get("status").asText());
+        assertEquals("Deadlock detected", output.get(1).get("error").asText());
+        verify(loanService, times(2)).applyPayment(argThat(request -> request.getLoanId() == 1L));
+        assertEquals(1, meterRegistry.get(LoanMetrics.INSTALLMENTS_PAID).summary().count());
+        assertEquals(2, meterRegistry.get(LoanMetrics.INSTALLMENTS_PAID).summary().totalAmount());
+        assertEquals(10, meterRegistry.get(LoanMetrics.PAYMENT_REMAINDER).summary().totalAmount());
+    }
+
+    @Test
+    void ingest_shouldSkipRecordsUpToCheckpoint() throws Exception {
+        List<JsonNode> output = ingest(SETTLEMENT_FILE, 5);
+
+        assertEquals(6, output.get(0).get("line").asLong());
+        assertEquals(6, output.get(1).get("checkpoint").asLong());
+        assertEquals(2, output.size());
+        verify(loanService, times(1)).applyPayment(any(PayLoanRequest.class));
+    }
+
+    @Test
+    void ingest_shouldReportOnlyCheckpoint_whenNothingLeftToResume() throws Exception {
+        List<JsonNode> output = ingest(SETTLEMENT_FILE, 6);
+
+        assertEquals(1, output.size());
+        assertFalse(output.get(0).has("status"));
+        verifyNoInteractions(loanService);
+    }
+
+    private List<JsonNode> ingest(String input, long resumeFrom) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ingestionService.ingest(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out, resumeFrom);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
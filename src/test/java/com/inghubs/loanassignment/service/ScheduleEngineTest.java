@@ -0,0 +1,74 @@
+package com.inghubs.loanassignment.service;
+
+import com.inghubs.loanassignment.entity.ScheduleType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 17);
+    private static final long RATE = InstallmentPricing.rateMicros(0.12);
+
+    @Test
+    void flat_shouldMatchTotalDividedByInstallments() {
+        InstallmentSchedule schedule = ScheduleEngine.generate(ScheduleType.FLAT, 100_000, InstallmentPricing.rateMicros(0.2), 9, TODAY);
+
+        assertEquals(120_000, schedule.totalMinor());
+        assertEquals(13_333, schedule.amounts()[0]);
+        assertEquals(13_336, schedule.amounts()[8]);
+    }
+
+    @Test
+    void annuity_shouldChargeEqualInstallmentsExceptRoundingOnTheLast() {
+        InstallmentSchedule schedule = ScheduleEngine.generate(ScheduleType.ANNUITY, 100_000, RATE, 12, TODAY);
+
+        long[] amounts = schedule.amounts();
+        assertTrue(Arrays.stream(amounts, 0, 11).allMatch(amount -> amount == 8_885));
+        assertEquals(8_884, amounts[11]);
+        assertEquals(106_619, schedule.totalMinor());
+    }
+
+    @Test
+    void decliningBalance_shouldChargeInterestOnOutstandingPrincipal() {
+        InstallmentSchedule schedule = ScheduleEngine.generate(ScheduleType.DECLINING_BALANCE, 120_000, RATE, 12, TODAY);
+
+        assertEquals(11_200, schedule.amounts()[0]);
+        assertEquals(10_600, schedule.amounts()[6]);
+        assertEquals(10_100, schedule.amounts()[11]);
+        assertEquals(127_800, schedule.totalMinor());
+    }
+
+    @Test
+    void strategies_shouldRepayPrincipalForUnevenAmounts() {
+        for (ScheduleType type : ScheduleType.values()) {
+            for (int installments : new int[]{6, 9, 12, 24}) {
+                InstallmentSchedule schedule = ScheduleEngine.generate(type, 99_999, InstallmentPricing.rateMicros(0.385), installments, TODAY);
+
+                assertEquals(installments, schedule.amounts().length);
+                assertEquals(Arrays.stream(schedule.amounts()).sum(), schedule.totalMinor());
+                assertTrue(schedule.totalMinor() > 99_999, type + " " + installments);
+                assertTrue(Arrays.stream(schedule.amounts()).allMatch(amount -> amount > 0), type + " " + installments);
+            }
+        }
+    }
+
+    @Test
+    void dueDates_shouldStartNextMonthAndBeSharedWithinAMonth() {
+        LocalDate[] dueDates = ScheduleEngine.generate(ScheduleType.ANNUITY, 100_000, RATE, 6, TODAY).dueDates();
+
+        assertEquals(LocalDate.of(2025, 7, 1), dueDates[0]);
+        assertEquals(LocalDate.of(2025, 12, 1), dueDates[5]);
+        assertSame(dueDates, ScheduleEngine.generate(ScheduleType.FLAT, 50_000, RATE, 6, TODAY.withDayOfMonth(30)).dueDates());
+        assertNotSame(dueDates, ScheduleEngine.dueDates(YearMonth.of(2025, 7), 6));
+    }
+
+    @Test
+    void strategy_shouldDefaultToFlat() {
+        assertInstanceOf(FlatScheduleStrategy.class, ScheduleEngine.strategy(null));
+    }
+}